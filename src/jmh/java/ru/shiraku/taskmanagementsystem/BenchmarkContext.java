@@ -0,0 +1,55 @@
+package ru.shiraku.taskmanagementsystem;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+/**
+ * Boots the application against an in-memory H2 database (PostgreSQL mode) so that
+ * benchmarks exercise the real services and repositories without a running Postgres.
+ * The schema, including indexes, comes from the Flyway migrations.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String databaseName, String... extraArgs) {
+        return run(WebApplicationType.NONE, databaseName, extraArgs);
+    }
+
+    /**
+     * Same context with the embedded Tomcat on a random port, for load tests over HTTP.
+     */
+    public static ConfigurableApplicationContext startServer(String databaseName, String... extraArgs) {
+        String[] serverArgs = Arrays.copyOf(extraArgs, extraArgs.length + 2);
+        serverArgs[extraArgs.length] = "--server.port=0";
+        serverArgs[extraArgs.length + 1] = "--management.server.port=0";
+        return run(WebApplicationType.SERVLET, databaseName, serverArgs);
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType type, String databaseName,
+                                                      String... extraArgs) {
+        String[] args = {
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=validate",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.docker.compose.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--ADMIN_SECRET_KEY=benchmark"
+        };
+        String[] allArgs = Arrays.copyOf(args, args.length + extraArgs.length);
+        System.arraycopy(extraArgs, 0, allArgs, args.length, extraArgs.length);
+        return new SpringApplicationBuilder(TaskManagementSystemApplication.class)
+                .web(type)
+                .run(allArgs);
+    }
+}
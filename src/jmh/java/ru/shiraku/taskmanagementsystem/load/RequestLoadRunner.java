@@ -0,0 +1,370 @@
+package ru.shiraku.taskmanagementsystem.load;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.shiraku.taskmanagementsystem.BenchmarkContext;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Role;
+import ru.shiraku.taskmanagementsystem.model.dto.CreateTaskRequest;
+import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
+import ru.shiraku.taskmanagementsystem.repository.UserRepository;
+import ru.shiraku.taskmanagementsystem.service.TaskService;
+import ru.shiraku.taskmanagementsystem.utils.JWTUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load test comparing the platform-thread and the virtual-thread request
+ * modes ({@code spring.threads.virtual.enabled}). For every mode the application is started
+ * on a random port against in-memory H2, seeded with tasks, and each scenario is driven by
+ * {@code --clients} concurrent clients, each sending its next request as soon as the previous
+ * one returns, or {@code --think} after it. Without think time the clients keep the server
+ * saturated and the latencies are mostly queueing; a think time that leaves the server partly
+ * idle measures it below saturation. Every scenario and the bulk endpoints are first driven together, unmeasured,
+ * for {@code --warmup}, so that no measured run pays for class loading and JIT compilation.
+ * <p>
+ * H2 answers from memory, so these numbers show the cost of the thread model itself; run
+ * the application against Postgres and pass {@code --url} and {@code --token} to measure
+ * with real I/O waits. Options: {@code --modes=platform,virtual --scenarios=list,comment
+ * --clients=500 --think=0s --tasks=1000 --warmup=10s --duration=30s --bulk=0 --rounds=1}.
+ * <p>
+ * {@code --bulk=0,2} runs every scenario alone and next to two admin clients that keep
+ * downloading the task export and the full task list, to show how far the interactive latency
+ * moves while bulk work runs; the bulk requests are reported as a scenario of their own.
+ * {@code --rounds} repeats the runs, reversing the order of the bulk levels every other round
+ * so that drift over the session does not favour one level. Each line of the report pools
+ * all rounds, shows the range of the per-round p99 and compares p99 with the same scenario
+ * at {@code bulk=0}.
+ */
+public final class RequestLoadRunner {
+
+    private static final String ADMIN = "load.admin@example.com";
+    private static final Pattern TASK_ID = Pattern.compile("\"taskId\":(\\d+)");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final Map<String, String> options;
+
+    private RequestLoadRunner(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // devtools would otherwise restart this main method with the application's arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "true");
+        }
+        new RequestLoadRunner(options).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        List<String> scenarios = List.of(option("scenarios", "list,comment").split(","));
+        List<Result> results = new ArrayList<>();
+        if (options.containsKey("url")) {
+            String baseUrl = options.get("url");
+            String token = options.get("token");
+            results.addAll(runAll("external", scenarios, baseUrl, token, findTaskIds(baseUrl, token)));
+        } else {
+            for (String mode : option("modes", "platform,virtual").split(",")) {
+                results.addAll(runInProcess(mode, scenarios));
+            }
+        }
+        System.out.printf("%n%-9s %-8s %8s %5s %5s %10s %9s %9s %19s %9s %9s %7s%n", "mode", "scenario",
+                "clients", "bulk", "runs", "req/s", "p50 ms", "p99 ms", "p99 range ms", "p99 diff", "max ms",
+                "errors");
+        for (Result result : results) {
+            Result baseline = results.stream()
+                    .filter(other -> other.mode.equals(result.mode) && other.scenario.equals(result.scenario)
+                            && other.bulkClients == 0)
+                    .findFirst()
+                    .orElse(null);
+            String diff = baseline == null || baseline == result ? "-" : String.format("%+.1f%%",
+                    (result.percentile(0.99) / baseline.percentile(0.99) - 1) * 100);
+            System.out.printf("%-9s %-8s %8d %5d %5d %10.1f %9.2f %9.2f %9.2f-%9.2f %9s %9.2f %7d%n",
+                    result.mode, result.scenario, result.clients, result.bulkClients, result.runs,
+                    result.throughput(), result.percentile(0.50), result.percentile(0.99), result.minRunP99,
+                    result.maxRunP99, diff, result.percentile(1.0), result.errors);
+        }
+    }
+
+    private List<Result> runInProcess(String mode, List<String> scenarios) throws Exception {
+        boolean virtual = switch (mode) {
+            case "platform" -> false;
+            case "virtual" -> true;
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        };
+        // admission control would answer most of the clients with 503 and hide the thread model
+        ConfigurableApplicationContext context = BenchmarkContext.startServer("load-" + mode,
+                "--spring.threads.virtual.enabled=" + virtual, "--admission.enabled=false");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+            String token = seed(context);
+            return runAll(mode, scenarios, baseUrl, token, findTaskIds(baseUrl, token));
+        } finally {
+            context.close();
+        }
+    }
+
+    private String seed(ConfigurableApplicationContext context) {
+        UserEntity admin = new UserEntity();
+        admin.setName("Load");
+        admin.setLastName("Admin");
+        admin.setEmail(ADMIN);
+        admin.setPassword("unused");
+        admin.setRole(Role.ADMIN);
+        admin = context.getBean(UserRepository.class).save(admin);
+        AuthenticatedUser author = new AuthenticatedUser(admin.getId(), ADMIN, Role.ADMIN, "Load", null);
+
+        TaskService taskService = context.getBean(TaskService.class);
+        int tasks = Integer.parseInt(option("tasks", "1000"));
+        for (int i = 0; i < tasks; i++) {
+            Priority priority = Priority.values()[i % Priority.values().length];
+            taskService.createTask(author, new CreateTaskRequest("Task " + i, "Description " + i, priority, ADMIN));
+        }
+        return context.getBean(JWTUtils.class).generateToken(admin.getId(), ADMIN, Role.ADMIN, "Load");
+    }
+
+    private List<Long> findTaskIds(String baseUrl, String token) throws Exception {
+        HttpResponse<String> response = client.send(
+                authorized(baseUrl + "/api/tasks?size=1000", token).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        List<Long> ids = new ArrayList<>();
+        Matcher matcher = TASK_ID.matcher(response.body());
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No tasks to load: HTTP " + response.statusCode());
+        }
+        return ids;
+    }
+
+    /**
+     * Warms up once, then runs every scenario at every bulk level {@code --rounds} times and
+     * pools the rounds of each configuration.
+     */
+    private List<Result> runAll(String mode, List<String> scenarios, String baseUrl, String token,
+                                List<Long> taskIds) {
+        List<Integer> bulkLevels = Arrays.stream(option("bulk", "0").split(",")).map(Integer::parseInt).toList();
+        int rounds = Integer.parseInt(option("rounds", "1"));
+        long warmup = Duration.parse("PT" + option("warmup", "10s")).toNanos();
+        long duration = Duration.parse("PT" + option("duration", "30s")).toNanos();
+
+        int maxBulk = Collections.max(bulkLevels);
+        for (String scenario : scenarios) {
+            drive(mode, scenario, maxBulk, baseUrl, token, taskIds, warmup / scenarios.size(), false);
+        }
+        Map<String, List<Result>> runs = new LinkedHashMap<>();
+        for (int round = 0; round < rounds; round++) {
+            for (String scenario : scenarios) {
+                List<Integer> order = new ArrayList<>(bulkLevels);
+                if (round % 2 == 1) {
+                    Collections.reverse(order);
+                }
+                for (int bulkClients : order) {
+                    for (Result run : drive(mode, scenario, bulkClients, baseUrl, token, taskIds, duration, true)) {
+                        System.out.printf("round %d: %s %s bulk=%d p99=%.2f ms%n", round + 1, mode, run.scenario,
+                                bulkClients, run.percentile(0.99));
+                        runs.computeIfAbsent(run.scenario + "/" + bulkClients, key -> new ArrayList<>()).add(run);
+                    }
+                }
+            }
+        }
+        List<Result> pooled = new ArrayList<>();
+        for (String scenario : scenarios) {
+            for (int bulkClients : bulkLevels) {
+                pooled.add(Result.pool(runs.get(scenario + "/" + bulkClients)));
+            }
+        }
+        for (int bulkClients : bulkLevels) {
+            List<Result> bulk = runs.get("bulk/" + bulkClients);
+            if (bulk != null) {
+                pooled.add(Result.pool(bulk));
+            }
+        }
+        return pooled;
+    }
+
+    private List<Result> drive(String mode, String scenario, int bulkClients, String baseUrl, String token,
+                               List<Long> taskIds, long duration, boolean measured) {
+        int clients = Integer.parseInt(option("clients", "500"));
+        long think = Duration.parse("PT" + option("think", "0s")).toNanos();
+        long start = System.nanoTime();
+        long end = start + duration;
+        long measureFrom = measured ? start : end;
+
+        List<Recorder> recorders = new ArrayList<>(clients);
+        List<Recorder> bulkRecorders = new ArrayList<>(bulkClients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < bulkClients; i++) {
+                String path = i % 2 == 0 ? "/api/admin/tasks/export" : "/api/admin/tasks";
+                bulkRecorders.add(loop(executor, () -> authorized(baseUrl + path, token).GET().build(), 0,
+                        measureFrom, end));
+            }
+            for (int i = 0; i < clients; i++) {
+                recorders.add(loop(executor, () -> request(scenario, baseUrl, token, taskIds), think,
+                        measureFrom, end));
+            }
+        }
+        List<Result> results = new ArrayList<>();
+        results.add(new Result(mode, scenario, clients, bulkClients, duration, recorders));
+        if (bulkClients > 0) {
+            results.add(new Result(mode, "bulk", bulkClients, bulkClients, duration, bulkRecorders));
+        }
+        return results;
+    }
+
+    /**
+     * Starts a client that sends its next request {@code think} nanoseconds after the previous
+     * one returns, until {@code end}.
+     */
+    private Recorder loop(ExecutorService executor, Supplier<HttpRequest> requests, long think, long measureFrom,
+                          long end) {
+        Recorder recorder = new Recorder();
+        executor.execute(() -> {
+            while (System.nanoTime() < end) {
+                HttpRequest request = requests.get();
+                long sent = System.nanoTime();
+                boolean ok;
+                try {
+                    ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                } catch (Exception e) {
+                    ok = false;
+                }
+                if (sent >= measureFrom) {
+                    recorder.record(System.nanoTime() - sent, ok);
+                }
+                if (think > 0) {
+                    try {
+                        Thread.sleep(Duration.ofNanos(think));
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        });
+        return recorder;
+    }
+
+    private HttpRequest request(String scenario, String baseUrl, String token, List<Long> taskIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (scenario) {
+            case "list" -> authorized(baseUrl + "/api/tasks?page=" + random.nextInt(taskIds.size() / 10)
+                    + "&size=10", token).GET().build();
+            case "comment" -> authorized(baseUrl + "/api/tasks/" + taskIds.get(random.nextInt(taskIds.size()))
+                    + "/add-comment", token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"comment\":\"load\"}"))
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+    }
+
+    private static HttpRequest.Builder authorized(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /** Latencies of one client; each client thread writes only its own recorder. */
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    private static final class Result {
+        private final String mode;
+        private final String scenario;
+        private final int clients;
+        private final int bulkClients;
+        private final long durationNanos;
+        private final long[] latencies;
+        private final long errors;
+        private final int runs;
+        private final double minRunP99;
+        private final double maxRunP99;
+
+        Result(String mode, String scenario, int clients, int bulkClients, long durationNanos,
+               List<Recorder> recorders) {
+            this(mode, scenario, clients, bulkClients, durationNanos,
+                    recorders.stream()
+                            .flatMapToLong(recorder -> Arrays.stream(recorder.latencies, 0, recorder.count))
+                            .sorted()
+                            .toArray(),
+                    recorders.stream().mapToLong(recorder -> recorder.errors).sum(),
+                    1, Double.NaN, Double.NaN);
+        }
+
+        private Result(String mode, String scenario, int clients, int bulkClients, long durationNanos,
+                       long[] latencies, long errors, int runs, double minRunP99, double maxRunP99) {
+            this.mode = mode;
+            this.scenario = scenario;
+            this.clients = clients;
+            this.bulkClients = bulkClients;
+            this.durationNanos = durationNanos;
+            this.latencies = latencies;
+            this.errors = errors;
+            this.runs = runs;
+            this.minRunP99 = runs == 1 ? percentile(0.99) : minRunP99;
+            this.maxRunP99 = runs == 1 ? percentile(0.99) : maxRunP99;
+        }
+
+        /** Merges the rounds of one configuration; percentiles are taken over all their requests. */
+        static Result pool(List<Result> rounds) {
+            Result first = rounds.get(0);
+            return new Result(first.mode, first.scenario, first.clients, first.bulkClients,
+                    rounds.stream().mapToLong(round -> round.durationNanos).sum(),
+                    rounds.stream().flatMapToLong(round -> Arrays.stream(round.latencies)).sorted().toArray(),
+                    rounds.stream().mapToLong(round -> round.errors).sum(),
+                    rounds.size(),
+                    rounds.stream().mapToDouble(round -> round.percentile(0.99)).min().orElse(0),
+                    rounds.stream().mapToDouble(round -> round.percentile(0.99)).max().orElse(0));
+        }
+
+        double throughput() {
+            return latencies.length / (durationNanos / 1e9);
+        }
+
+        double percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
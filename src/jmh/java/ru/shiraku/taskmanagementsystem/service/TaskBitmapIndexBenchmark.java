@@ -0,0 +1,126 @@
+package ru.shiraku.taskmanagementsystem.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.shiraku.taskmanagementsystem.BenchmarkContext;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Status;
+import ru.shiraku.taskmanagementsystem.model.TaskFilter;
+import ru.shiraku.taskmanagementsystem.model.TaskSort;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskSummaryResponse;
+import ru.shiraku.taskmanagementsystem.model.entity.TaskEntity;
+import ru.shiraku.taskmanagementsystem.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares filtered counts and pages answered by {@link TaskBitmapIndex} with the same
+ * filters run as Specifications against the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskBitmapIndexBenchmark {
+
+    private static final int USERS = 1000;
+    private static final int BATCH_SIZE = 5000;
+
+    @Param({"1000000"})
+    public int tasks;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskRepository taskRepository;
+    private TaskBitmapIndex index;
+    private List<UUID> users;
+    private String executorEmail;
+    private TaskFilter filter;
+    private Specification<TaskEntity> spec;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("task-index-" + tasks, "--task.index.enabled=true");
+        taskService = context.getBean(TaskService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        index = context.getBean(TaskBitmapIndex.class);
+        seed(context.getBean(JdbcTemplate.class));
+        index.rebuild();
+
+        executorEmail = email(0);
+        Set<UUID> executors = Set.of(users.get(0), users.get(1));
+        Set<Status> statuses = Set.of(Status.TODO, Status.IN_PROCESS);
+        filter = new TaskFilter(statuses, Set.of(Priority.HIGH), null, executors);
+        spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                root.get("executor").get("id").in(executors),
+                root.get("taskStatus").in(statuses),
+                criteriaBuilder.equal(root.get("priority"), Priority.HIGH));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long countIndex() {
+        return index.match(filter).orElseThrow().getLongCardinality();
+    }
+
+    @Benchmark
+    public long countSpecification() {
+        return taskRepository.count(spec);
+    }
+
+    @Benchmark
+    public Page<TaskSummaryResponse> pageIndex() {
+        return taskService.getTasks(null, executorEmail, "TODO", "HIGH", TaskSort.ID, Sort.Direction.DESC, 5, 20);
+    }
+
+    @Benchmark
+    public Page<TaskSummaryResponse> pageSpecification() {
+        return taskRepository.findSummaries(taskService.buildSpecification(null, executorEmail, "TODO", "HIGH"),
+                PageRequest.of(5, 20, Sort.by(Sort.Direction.DESC, TaskSort.ID.name())));
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        users = new ArrayList<>(USERS);
+        List<Object[]> userRows = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            UUID id = UUID.randomUUID();
+            users.add(id);
+            userRows.add(new Object[]{id, email(i), "Bench", "User " + i, "{noop}password", "USER"});
+        }
+        jdbc.batchUpdate("insert into users (id, email, last_name, name, password, role) values (?, ?, ?, ?, ?, ?)",
+                userRows);
+
+        Status[] statuses = Status.values();
+        Priority[] priorities = Priority.values();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= tasks; i++) {
+            batch.add(new Object[]{(long) i, "Task " + i, "Description " + i,
+                    priorities[i % priorities.length].name(), statuses[(i / 7) % statuses.length].name(),
+                    users.get((i * 31) % USERS), users.get(i % USERS)});
+            if (batch.size() == BATCH_SIZE || i == tasks) {
+                jdbc.batchUpdate("insert into tasks (task_id, task_title, task_description, priority, task_status, "
+                        + "author_id, executor_id) values (?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static String email(int i) {
+        return "bench.user" + i + "@example.com";
+    }
+}
@@ -0,0 +1,118 @@
+package ru.shiraku.taskmanagementsystem.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Hibernate;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.shiraku.taskmanagementsystem.BenchmarkContext;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.TaskSort;
+import ru.shiraku.taskmanagementsystem.model.dto.CommentResponse;
+import ru.shiraku.taskmanagementsystem.model.dto.CreateTaskRequest;
+import ru.shiraku.taskmanagementsystem.model.dto.RegisterRequest;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskResponse;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskSummaryResponse;
+import ru.shiraku.taskmanagementsystem.model.entity.CommentEntity;
+import ru.shiraku.taskmanagementsystem.model.entity.TaskEntity;
+import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
+import ru.shiraku.taskmanagementsystem.repository.TaskRepository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private static final String AUTHOR = "bench.author@example.com";
+    private static final String EXECUTOR = "bench.executor@example.com";
+
+    @Param({"10", "100"})
+    public int commentsPerTask;
+
+    @Param({"200"})
+    public int tasks;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private CriteriaBuilder criteriaBuilder;
+    private TaskEntity task;
+    private CommentEntity comment;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("task-service-" + commentsPerTask);
+        taskService = context.getBean(TaskService.class);
+        UserService userService = context.getBean(UserService.class);
+        userService.registerUser(new RegisterRequest("Author", "Bench", AUTHOR, "password123"));
+        userService.registerUser(new RegisterRequest("Executor", "Bench", EXECUTOR, "password123"));
+
+        AuthenticatedUser author = principal(userService.findByEmail(AUTHOR));
+        AuthenticatedUser executor = principal(userService.findByEmail(EXECUTOR));
+
+        Long lastTaskId = null;
+        for (int i = 0; i < tasks; i++) {
+            Priority priority = Priority.values()[i % Priority.values().length];
+            lastTaskId = taskService.createTask(author,
+                    new CreateTaskRequest("Task " + i, "Description " + i, priority, EXECUTOR)).getTaskId();
+            taskService.appendComments(lastTaskId, executor,
+                    IntStream.range(0, commentsPerTask).mapToObj(c -> "Comment " + c).toList());
+        }
+
+        Long taskId = lastTaskId;
+        TaskRepository taskRepository = context.getBean(TaskRepository.class);
+        task = context.getBean(TransactionTemplate.class).execute(status -> {
+            TaskEntity loaded = taskRepository.findById(taskId).orElseThrow();
+            Hibernate.initialize(loaded.getComments());
+            loaded.getComments().forEach(c -> Hibernate.initialize(c.getAuthor()));
+            return loaded;
+        });
+        comment = task.getComments().get(0);
+        criteriaBuilder = context.getBean(EntityManagerFactory.class).getCriteriaBuilder();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TaskResponse createTaskResponse() {
+        return taskService.createTaskResponse(task);
+    }
+
+    @Benchmark
+    public CommentResponse toDto() {
+        return taskService.toDto(comment);
+    }
+
+    @Benchmark
+    public Predicate buildSpecification() {
+        Specification<TaskEntity> spec = taskService.buildSpecification(AUTHOR, EXECUTOR, "TODO", "HIGH");
+        CriteriaQuery<TaskEntity> query = criteriaBuilder.createQuery(TaskEntity.class);
+        Root<TaskEntity> root = query.from(TaskEntity.class);
+        return spec.toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Benchmark
+    public Page<TaskSummaryResponse> getTasks() {
+        return taskService.getTasks(null, EXECUTOR, null, "HIGH", TaskSort.ID, Sort.Direction.ASC, 0, 10);
+    }
+
+    private static AuthenticatedUser principal(UserEntity user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(), user.getName(), null);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.shiraku.taskmanagementsystem.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.shiraku.taskmanagementsystem.BenchmarkContext;
+import ru.shiraku.taskmanagementsystem.model.dto.LoginRequest;
+import ru.shiraku.taskmanagementsystem.model.dto.RegisterRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private LoginRequest loginRequest;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("user-service");
+        userService = context.getBean(UserService.class);
+        userService.registerUser(new RegisterRequest("Login", "Bench", "bench.login@example.com", "password123"));
+        loginRequest = new LoginRequest("bench.login@example.com", "password123");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String loginUser() {
+        return userService.loginUser(loginRequest);
+    }
+}
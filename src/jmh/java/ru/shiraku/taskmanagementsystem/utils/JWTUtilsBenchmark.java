@@ -0,0 +1,44 @@
+package ru.shiraku.taskmanagementsystem.utils;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.openjdk.jmh.annotations.*;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+import ru.shiraku.taskmanagementsystem.model.Role;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTUtilsBenchmark {
+
+    private JWTUtils jwtUtils;
+    private UUID userId;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtils = new JWTUtils();
+        userId = UUID.randomUUID();
+        token = jwtUtils.generateToken(userId, "bench.user@example.com", Role.USER, "Bench");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(userId, "bench.user@example.com", Role.USER, "Bench");
+    }
+
+    @Benchmark
+    public DecodedJWT decodeToken() {
+        return jwtUtils.decodeToken(token);
+    }
+
+    @Benchmark
+    public AuthenticatedUser parseToken() {
+        return jwtUtils.parseToken(token);
+    }
+}
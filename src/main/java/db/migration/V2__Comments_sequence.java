@@ -0,0 +1,32 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Databases created before comments moved from IDENTITY to a pooled sequence have no
+ * {@code comments_seq}, or one that was started at 1 next to existing rows. Hibernate's
+ * pooled optimizer hands out the block of 50 ids ending at the fetched value, so the
+ * sequence has to restart at {@code max(id) + 50}. Written in Java because
+ * {@code setval} is PostgreSQL-only and the same migrations run on H2 in tests.
+ */
+public class V2__Comments_sequence extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.execute("create sequence if not exists comments_seq start with 1 increment by 50");
+            long maxId;
+            try (ResultSet resultSet = statement.executeQuery("select coalesce(max(comments_id), 0) from comments")) {
+                resultSet.next();
+                maxId = resultSet.getLong(1);
+            }
+            if (maxId > 0) {
+                statement.execute("alter sequence comments_seq restart with " + (maxId + 50));
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ru.shiraku.taskmanagementsystem.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.shiraku.taskmanagementsystem.utils.RequestQueryCounter;
+
+/**
+ * Bulkhead for the admin bulk endpoints: full task and user lists and exports are handled
+ * asynchronously ({@code Callable} and {@code StreamingResponseBody}) on a small pool of their
+ * own, so a dump gives its request thread back at once and can hold at most
+ * {@code bulkhead.bulk.threads} database connections. Interactive endpoints stay synchronous
+ * on the request threads and keep the rest of the Hikari pool, which must therefore be larger
+ * than the bulk pool. When the bulk pool and its queue are full, requests get 503. Admission
+ * control admits admin requests up to {@code admission.admin.max-concurrent}, which therefore
+ * has to be at least threads plus queue capacity for the queue to fill.
+ * <p>
+ * This is the executor for all MVC async processing; task event streams do not use it.
+ * The request's query counts follow the work onto the bulk threads.
+ */
+@Configuration
+public class BulkheadConfig implements WebMvcConfigurer {
+    private final ThreadPoolTaskExecutor bulkExecutor;
+
+    public BulkheadConfig(@Qualifier("bulkExecutor") ThreadPoolTaskExecutor bulkExecutor) {
+        this.bulkExecutor = bulkExecutor;
+    }
+
+    @Bean
+    public static ThreadPoolTaskExecutor bulkExecutor(@Value("${bulkhead.bulk.threads:2}") int threads,
+                                                      @Value("${bulkhead.bulk.queue-capacity:8}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bulk-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(bulkExecutor);
+        configurer.registerCallableInterceptors(new RequestQueryCounter.AsyncHandoff());
+    }
+}
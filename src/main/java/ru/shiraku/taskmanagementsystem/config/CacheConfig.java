@@ -0,0 +1,39 @@
+package ru.shiraku.taskmanagementsystem.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * Cache sizes and TTLs are set through {@code spring.cache.*}; setting
+ * {@code spring.cache.type=none} turns caching off without code changes.
+ * <p>
+ * Cache annotations go through a transaction-aware view of the cache manager, so an
+ * {@code @CacheEvict} on a {@code @Transactional} method takes effect after the commit.
+ * Evicting earlier would let a concurrent lookup cache the old row again.
+ * <p>
+ * The caching infrastructure reads this configurer while post-processors are still being
+ * created, hence the infrastructure role.
+ */
+@Configuration
+@EnableCaching
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class CacheConfig implements CachingConfigurer {
+    public static final String USERS = "users";
+
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    public CacheConfig(ObjectProvider<CacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public CacheManager cacheManager() {
+        return new TransactionAwareCacheManagerProxy(cacheManager.getObject());
+    }
+}
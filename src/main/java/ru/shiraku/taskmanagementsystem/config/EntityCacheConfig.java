@@ -0,0 +1,111 @@
+package ru.shiraku.taskmanagementsystem.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.shiraku.taskmanagementsystem.event.CommentAddedEvent;
+import ru.shiraku.taskmanagementsystem.model.entity.TaskEntity;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for users, tasks and task comments, kept in process by
+ * Caffeine and turned on with {@code entity-cache.enabled=true}. Each region is bounded by
+ * {@code entity-cache.max-size} and reports hits, misses and evictions as
+ * {@code cache.gets} / {@code cache.evictions} tagged with the region name.
+ * <p>
+ * The update timestamps region is neither bounded nor expired: query results are only
+ * valid while the timestamps of the tables they read are known.
+ */
+@Configuration
+@ConditionalOnProperty(name = "entity-cache.enabled", havingValue = "true")
+public class EntityCacheConfig {
+    public static final String USERS = "entity.users";
+    public static final String TASKS = "entity.tasks";
+    public static final String COMMENTS = "entity.comments";
+    public static final String TASK_COMMENTS = "collection.task-comments";
+
+    private static final String QUERY_RESULTS = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    private static final String UPDATE_TIMESTAMPS = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${entity-cache.max-size:10000}") long maxSize,
+                                           @Value("${entity-cache.expire-after-write:10m}") Duration expireAfterWrite,
+                                           MeterRegistry meterRegistry) {
+        // a manager of its own per application context, so that contexts never share entries
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("entity-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : List.of(USERS, TASKS, COMMENTS, TASK_COMMENTS, QUERY_RESULTS)) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+            configuration.setStatisticsEnabled(true);
+            monitor(cacheManager.createCache(region, configuration), meterRegistry);
+        }
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        monitor(cacheManager.createCache(UPDATE_TIMESTAMPS, timestamps), meterRegistry);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheProperties(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public TaskCommentsEviction taskCommentsEviction(EntityManagerFactory entityManagerFactory) {
+        return new TaskCommentsEviction(entityManagerFactory.unwrap(SessionFactory.class));
+    }
+
+    private static void monitor(Cache<Object, Object> cache, MeterRegistry meterRegistry) {
+        JCacheMetrics.monitor(meterRegistry, cache);
+    }
+
+    /**
+     * Adding comments bumps the task's version through a lock, which Hibernate does not
+     * write to the cache, and comments saved through their own repository never touch the
+     * task's collection. Both cached copies are dropped once the comments are committed.
+     */
+    public static class TaskCommentsEviction {
+        private static final String ROLE = TaskEntity.class.getName() + ".comments";
+
+        private final SessionFactory sessionFactory;
+
+        TaskCommentsEviction(SessionFactory sessionFactory) {
+            this.sessionFactory = sessionFactory;
+        }
+
+        @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+        public void onCommentAdded(CommentAddedEvent event) {
+            sessionFactory.getCache().evictEntityData(TaskEntity.class, event.getTaskId());
+            sessionFactory.getCache().evictCollectionData(ROLE, event.getTaskId());
+        }
+    }
+}
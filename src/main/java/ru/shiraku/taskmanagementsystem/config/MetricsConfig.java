@@ -0,0 +1,49 @@
+package ru.shiraku.taskmanagementsystem.config;
+
+import io.micrometer.core.instrument.Tags;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.shiraku.taskmanagementsystem.utils.RequestQueryCounter;
+
+/**
+ * Hibernate statistics ({@code hibernate.*} meters: queries, entity loads, collection
+ * fetches, cache use) and the per-request counts behind
+ * {@link ru.shiraku.taskmanagementsystem.filter.RequestMetricsFilter}. Request latency
+ * histograms, the {@code @Timed} service timers and the Hikari pool gauges are set up by
+ * Spring Boot from {@code management.*} properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Keeps a statement inspector that is already configured, so the per-request statement
+     * count is not collected in that case.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsProperties() {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, RequestQueryCounter.Statements.class.getName());
+        };
+    }
+
+    /**
+     * Also registers the listeners that count entity loads and collection fetches per request.
+     */
+    @Bean
+    public HibernateMetrics hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        RequestQueryCounter.Loads loads = new RequestQueryCounter.Loads();
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD, loads);
+        listeners.appendListeners(EventType.INIT_COLLECTION, loads);
+        return new HibernateMetrics(sessionFactory, "default", Tags.empty());
+    }
+}
@@ -0,0 +1,64 @@
+package ru.shiraku.taskmanagementsystem.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Hands out replica connections, or primary ones while the replica cannot be reached.
+ * After a failed attempt the replica is skipped for {@code retryInterval}, so reads do
+ * not wait for a connection timeout on every request while it is down.
+ */
+class ReplicaFallbackDataSource extends DelegatingDataSource {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaFallbackDataSource.class);
+
+    private final DataSource primary;
+    private final long retryNanos;
+    private final Counter fallbacks;
+    private volatile long replicaDownUntil;
+    private volatile boolean replicaDown;
+
+    ReplicaFallbackDataSource(DataSource replica, DataSource primary, Duration retryInterval,
+                              MeterRegistry meterRegistry) {
+        super(replica);
+        this.primary = primary;
+        this.retryNanos = retryInterval.toNanos();
+        this.fallbacks = Counter.builder("datasource.replica.fallback")
+                .description("Read-only connections taken from the primary because the replica was unavailable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicaDown && System.nanoTime() - replicaDownUntil < 0) {
+            fallbacks.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = super.getConnection();
+            if (replicaDown) {
+                replicaDown = false;
+                log.info("Replica is available again, read-only transactions use it");
+            }
+            return connection;
+        } catch (SQLException e) {
+            replicaDownUntil = System.nanoTime() + retryNanos;
+            replicaDown = true;
+            log.warn("Replica is unavailable, read-only transactions use the primary: {}", e.getMessage());
+            fallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+}
@@ -1,7 +1,9 @@
 package ru.shiraku.taskmanagementsystem.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -24,10 +26,20 @@ public class SecurityConfig {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // async dispatches finish streams (exports, task events) that were authorized on entry
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        // served on the management port only (management.server.port), which is not
+                        // published outside the compose network; Prometheus scrapes it without a token
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/user/register", "/api/user/login").permitAll()
                         .requestMatchers("/api/admin/create-admin").hasAnyRole("USER", "ADMIN")
-                        .requestMatchers("/api/tasks/*/update-status",
+                        .requestMatchers("/api/tasks/slice", "/api/tasks/cursor", "/api/tasks/count").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/tasks/*/comments",
+                                "/api/tasks/*/comments/batch").hasAnyRole("ADMIN", "USER")
+                        .requestMatchers("/api/tasks/events",
+                                "/api/tasks/*/update-status",
                                 "/api/tasks/*/add-comment",
                                 "/api/tasks/*").hasAnyRole("ADMIN", "USER")
                         .requestMatchers("/api/admin/**", "/api/tasks/**").hasRole("ADMIN")
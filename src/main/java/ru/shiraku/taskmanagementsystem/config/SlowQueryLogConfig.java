@@ -0,0 +1,42 @@
+package ru.shiraku.taskmanagementsystem.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.shiraku.taskmanagementsystem.utils.SlowQueryListener;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application's data source in a datasource-proxy feeding {@link SlowQueryListener},
+ * in place of {@code spring.jpa.show-sql}. With a replica configured this is the routing
+ * data source, so reads from both databases are covered; Flyway's migrations are not.
+ */
+@Configuration
+@ConditionalOnProperty(name = "slow-query-log.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLogConfig {
+
+    @Bean
+    public static BeanPostProcessor slowQueryLogDataSource(
+            @Value("${slow-query-log.threshold:200ms}") Duration threshold,
+            @Value("${slow-query-log.sample-rate:0}") double sampleRate) {
+        SlowQueryListener listener = new SlowQueryListener(threshold, sampleRate);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener)
+                            .proxyResultSet(listener)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package ru.shiraku.taskmanagementsystem.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class WebConfig {
+
+    /**
+     * Task lists have no single version to compare, so their ETag is a hash of the body:
+     * the list is still built, but an unchanged one goes back as an empty 304. Streaming
+     * endpoints (exports, events) are left out because the filter buffers the whole body.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> listEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/tasks", "/api/tasks/slice", "/api/tasks/cursor",
+                "/api/user/tasks", "/api/admin/tasks");
+        registration.setName("listEtagFilter");
+        return registration;
+    }
+}
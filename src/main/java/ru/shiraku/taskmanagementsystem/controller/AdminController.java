@@ -6,26 +6,47 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.shiraku.taskmanagementsystem.model.ExportFormat;
 import ru.shiraku.taskmanagementsystem.model.dto.RegisterAdminRequest;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskStatsResponse;
+import ru.shiraku.taskmanagementsystem.service.ExportService;
 import ru.shiraku.taskmanagementsystem.service.TaskService;
+import ru.shiraku.taskmanagementsystem.service.TaskStatsService;
 import ru.shiraku.taskmanagementsystem.service.UserService;
 
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full lists and exports are returned as {@code Callable} and {@code StreamingResponseBody},
+ * so they run on the bulk executor ({@link ru.shiraku.taskmanagementsystem.config.BulkheadConfig})
+ * rather than on a request thread.
+ */
 @RestController
 @RequestMapping("/api/admin")
 @Tag(name = "Администраторы", description = "Управление администраторами")
 public class AdminController {
     private final UserService userService;
     private final TaskService taskService;
+    private final ExportService exportService;
+    private final TaskStatsService taskStatsService;
 
     @Value("${ADMIN_SECRET_KEY}")
     private String adminSecretKey;
 
-    public AdminController(UserService userService, TaskService taskService) {
+    public AdminController(UserService userService, TaskService taskService, ExportService exportService,
+                           TaskStatsService taskStatsService) {
         this.userService = userService;
         this.taskService = taskService;
+        this.exportService = exportService;
+        this.taskStatsService = taskStatsService;
     }
 
     @Operation(summary = "Регистрация администрации",
@@ -50,8 +71,8 @@ public class AdminController {
             @ApiResponse(responseCode = "200", description = "Список успешно выведен")
     })
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public Callable<ResponseEntity<?>> getAllUsers() {
+        return () -> ResponseEntity.ok(userService.getAllUsers());
     }
 
     @Operation(summary = "Список всех задач",
@@ -60,9 +81,60 @@ public class AdminController {
             @ApiResponse(responseCode = "200", description = "Список задач успешно выведен")
     })
     @GetMapping("/tasks")
-    public ResponseEntity<?> getAllTask() {
-        return ResponseEntity.ok(taskService.getAllTasks());
+    public Callable<ResponseEntity<?>> getAllTask() {
+        return () -> ResponseEntity.ok(taskService.getAllTasks());
+    }
+
+    @Operation(summary = "Статистика задач",
+            description = "Количество задач по статусам, приоритетам и исполнителям. Счетчики хранятся в памяти "
+                    + "и периодически сверяются с базой данных")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Статистика успешно получена"),
+            @ApiResponse(responseCode = "503", description = "Счетчики еще загружаются после запуска")
+    })
+    @GetMapping("/tasks/stats")
+    public ResponseEntity<TaskStatsResponse> getTaskStats() {
+        return ResponseEntity.ok(taskStatsService.getStats());
     }
 
+    @Operation(summary = "Потоковая выгрузка всех задач",
+            description = "Выгружает все задачи построчно в формате NDJSON или CSV, опционально со сжатием gzip")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка успешно начата")
+    })
+    @GetMapping("/tasks/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                                             @RequestParam(defaultValue = "false") boolean gzip) {
+        return export("tasks", format, gzip, out -> exportService.exportTasks(out, format));
+    }
+
+    @Operation(summary = "Потоковая выгрузка всех пользователей",
+            description = "Выгружает всех пользователей построчно в формате NDJSON или CSV, опционально со сжатием gzip")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка успешно начата")
+    })
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                                             @RequestParam(defaultValue = "false") boolean gzip) {
+        return export("users", format, gzip, out -> exportService.exportUsers(out, format));
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, ExportFormat format, boolean gzip,
+                                                         StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension())
+                        .build()
+                        .toString());
+        if (!gzip) {
+            return response.body(body);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+            body.writeTo(compressed);
+            compressed.finish();
+        });
+    }
 
 }
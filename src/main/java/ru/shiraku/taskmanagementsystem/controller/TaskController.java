@@ -5,26 +5,46 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Status;
+import ru.shiraku.taskmanagementsystem.model.TaskField;
+import ru.shiraku.taskmanagementsystem.model.TaskSort;
 import ru.shiraku.taskmanagementsystem.model.dto.*;
-import ru.shiraku.taskmanagementsystem.model.entity.TaskEntity;
+import ru.shiraku.taskmanagementsystem.service.TaskEventBroadcaster;
 import ru.shiraku.taskmanagementsystem.service.TaskService;
+import ru.shiraku.taskmanagementsystem.utils.ETags;
+import ru.shiraku.taskmanagementsystem.utils.SecurityUtils;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
+@Validated
 @RequestMapping("/api/tasks")
 @Tag(name = "Задачи", description = "Управление задачами")
 public class TaskController {
+    private static final int MAX_PAGE_SIZE = 1000;
 
     private final TaskService taskService;
+    private final TaskEventBroadcaster taskEventBroadcaster;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskEventBroadcaster taskEventBroadcaster) {
         this.taskService = taskService;
+        this.taskEventBroadcaster = taskEventBroadcaster;
     }
 
     @Operation(summary = "Создание новой задачи (ADMIN)",
@@ -34,32 +54,56 @@ public class TaskController {
             @ApiResponse(responseCode = "400", description = "Некорректные входные данные")
     })
     @PostMapping("/create")
-    public ResponseEntity<TaskEntity> createTask(@Valid @RequestBody CreateTaskRequest request) {
-        String authorEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        return ResponseEntity.status(HttpStatus.CREATED).body(taskService.createTask(authorEmail, request));
+    public ResponseEntity<TaskResponse> createTask(@Valid @RequestBody CreateTaskRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(taskService.createTask(SecurityUtils.currentUser(), request));
     }
 
     @Operation(summary = "Редактирование задачи (ADMIN)",
             description = "Редактирование задачи на основе входных данных")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Задача успешно изменена"),
-            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+            @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+            @ApiResponse(responseCode = "409", description = "Задача была изменена параллельным запросом"),
+            @ApiResponse(responseCode = "412", description = "Версия задачи не совпадает с If-Match")
     })
     @PatchMapping("/{taskId}/edit")
-    public ResponseEntity<?> editTask(@PathVariable Long taskId, @RequestBody EditTaskRequest request) {
-        return ResponseEntity.ok(taskService.editTask(taskId, request));
+    public ResponseEntity<?> editTask(@PathVariable Long taskId, @RequestBody EditTaskRequest request,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(taskService.editTask(taskId, request, ETags.expectedVersions(ifMatch)));
     }
 
     @Operation(summary = "Открыть задачу",
-            description = "Открытие задачи для просмотра")
+            description = "Открытие задачи для просмотра. Ответ содержит ETag с версией задачи; "
+                    + "при совпадении If-None-Match возвращается 304 без тела. "
+                    + "Параметр fields (например, taskTitle,taskStatus,comments) ограничивает "
+                    + "ответ перечисленными полями")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Задача успешно найдена"),
+            @ApiResponse(responseCode = "304", description = "Задача не изменилась"),
+            @ApiResponse(responseCode = "400", description = "Неизвестное поле в fields"),
             @ApiResponse(responseCode = "404", description = "Задача не найдена")
     })
     @GetMapping("/{taskId}")
-    public ResponseEntity<TaskResponse> getTask(@PathVariable Long taskId) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return ResponseEntity.ok(taskService.getTask(taskId, email));
+    public ResponseEntity<?> getTask(@PathVariable Long taskId,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                     String ifNoneMatch,
+                                     @RequestParam(required = false) String fields) {
+        Set<TaskField> requested = TaskField.parse(fields);
+        AuthenticatedUser caller = SecurityUtils.currentUser();
+        if (ifNoneMatch != null) {
+            long version = taskService.getTaskVersion(taskId, caller);
+            if (ETags.matchesAny(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version)).build();
+            }
+        }
+        if (requested == null) {
+            return withETag(taskService.getTask(taskId, caller));
+        }
+        Map<String, Object> task = taskService.getTaskFields(taskId, requested, caller);
+        Object version = requested.contains(TaskField.VERSION)
+                ? task.get(TaskField.VERSION.getJsonName())
+                : task.remove(TaskField.VERSION.getJsonName());
+        return ResponseEntity.ok().eTag(ETags.of((Long) version)).body(task);
     }
 
     @Operation(summary = "Удалить задачу (ADMIN)",
@@ -78,40 +122,55 @@ public class TaskController {
             description = "Обновление приоритета у задачи")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Приоритет успешно изменен"),
-            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+            @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+            @ApiResponse(responseCode = "409", description = "Задача была изменена параллельным запросом"),
+            @ApiResponse(responseCode = "412", description = "Версия задачи не совпадает с If-Match")
     })
     @PatchMapping("/{taskId}/update-priority")
     public ResponseEntity<TaskResponse> updatePriority(@PathVariable Long taskId,
-                                                       @Valid @RequestBody PriorityRequest request) {
-        return ResponseEntity.ok(taskService.updatePriority(taskId, request.getPriority()));
+                                                       @Valid @RequestBody PriorityRequest request,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                       String ifMatch) {
+        return withETag(taskService.updatePriority(taskId, request.getPriority(), ETags.expectedVersions(ifMatch)));
     }
 
     @Operation(summary = "Обновление статуса",
             description = "Обновление статуса у задачи")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Статус успешно изменен"),
-            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+            @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+            @ApiResponse(responseCode = "409", description = "Задача была изменена параллельным запросом"),
+            @ApiResponse(responseCode = "412", description = "Версия задачи не совпадает с If-Match")
     })
     @PatchMapping("/{taskId}/update-status")
     public ResponseEntity<TaskResponse> updateStatus(@PathVariable Long taskId,
-                                                     @Valid @RequestBody StatusRequest request) {
-        return ResponseEntity.ok(taskService.updateStatus(taskId, request.getStatus()));
+                                                     @Valid @RequestBody StatusRequest request,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                     String ifMatch) {
+        return withETag(taskService.updateStatus(taskId, request.getStatus(), ETags.expectedVersions(ifMatch)));
     }
 
     @Operation(summary = "Изменение исполнителя (ADMIN)",
             description = "Изменение исполнителя задачи")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Исполнитель успешно изменен"),
-            @ApiResponse(responseCode = "404", description = "Задача или Исполнитель не найден")
+            @ApiResponse(responseCode = "404", description = "Задача или Исполнитель не найден"),
+            @ApiResponse(responseCode = "409", description = "Задача была изменена параллельным запросом"),
+            @ApiResponse(responseCode = "412", description = "Версия задачи не совпадает с If-Match")
     })
     @PatchMapping("/{taskId}/update-executor")
     public ResponseEntity<TaskResponse> updateTaskExecutor(@PathVariable Long taskId,
-                                                           @Valid @RequestBody UpdateExecutorRequest request) {
-        return ResponseEntity.ok(taskService.updateExecutor(taskId, request.getExecutorEmail()));
+                                                           @Valid @RequestBody UpdateExecutorRequest request,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                           String ifMatch) {
+        return withETag(taskService.updateExecutor(taskId, request.getExecutorEmail(),
+                ETags.expectedVersions(ifMatch)));
     }
 
     @Operation(summary = "Добавить комментарий",
-            description = "Добавление комментария в задаче")
+            description = "Добавление комментария в задаче. Возвращает задачу со всеми комментариями; "
+                    + "для новых клиентов используйте POST /api/tasks/{taskId}/comments",
+            deprecated = true)
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Комментарий успешно добавлен"),
             @ApiResponse(responseCode = "404", description = "Задача или Автор не найден")
@@ -119,26 +178,146 @@ public class TaskController {
     @PostMapping("/{taskId}/add-comment")
     public ResponseEntity<TaskResponse> addCommentToTask(@PathVariable Long taskId,
                                                          @Valid @RequestBody AddCommentRequest request) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return ResponseEntity.ok(taskService.addComment(taskId, email, request.getComment()));
+        return ResponseEntity.ok(taskService.addComment(taskId, SecurityUtils.currentUser(), request.getComment()));
+    }
+
+    @Operation(summary = "Добавить комментарий",
+            description = "Добавляет комментарий, не загружая остальные комментарии задачи, и возвращает только его")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Комментарий успешно добавлен"),
+            @ApiResponse(responseCode = "400", description = "Пустой комментарий"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    @PostMapping("/{taskId}/comments")
+    public ResponseEntity<CommentResponse> appendComment(@PathVariable Long taskId,
+                                                         @Valid @RequestBody AddCommentRequest request) {
+        List<CommentResponse> comments = taskService.appendComments(taskId, SecurityUtils.currentUser(),
+                List.of(request.getComment()));
+        return ResponseEntity.status(HttpStatus.CREATED).body(comments.get(0));
+    }
+
+    @Operation(summary = "Добавить несколько комментариев",
+            description = "Добавляет до 100 комментариев одной пакетной вставкой")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Комментарии успешно добавлены"),
+            @ApiResponse(responseCode = "400", description = "Пустой список или пустой комментарий"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    @PostMapping("/{taskId}/comments/batch")
+    public ResponseEntity<List<CommentResponse>> appendComments(@PathVariable Long taskId,
+                                                                @Valid @RequestBody AddCommentsRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(taskService.appendComments(taskId, SecurityUtils.currentUser(), request.getComments()));
     }
 
     @GetMapping
-    public ResponseEntity<Page<TaskResponse>> getTasks(
+    public ResponseEntity<Page<?>> getTasks(
             @RequestParam(required = false) String authorEmail,
             @RequestParam(required = false) String executorEmail,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String priority,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "ID") TaskSort sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_PAGE_SIZE) int size,
+            @RequestParam(required = false) String fields) {
 
-        Page<TaskResponse> tasks = taskService.getTasks(authorEmail, executorEmail, status, priority, page, size);
+        Set<TaskField> requested = TaskField.parse(fields);
+        if (requested != null) {
+            return ResponseEntity.ok(taskService.getTasks(authorEmail, executorEmail, status, priority,
+                    sort, direction, page, size, requested));
+        }
+        Page<TaskSummaryResponse> tasks = taskService.getTasks(authorEmail, executorEmail, status, priority,
+                sort, direction, page, size);
         return ResponseEntity.ok(tasks);
     }
 
+    @Operation(summary = "Список задач без подсчета общего количества (ADMIN)",
+            description = "Страница задач без запроса COUNT(*): возвращает только признак наличия следующей страницы")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задачи успешно найдены")
+    })
+    @GetMapping("/slice")
+    public ResponseEntity<Slice<TaskSummaryResponse>> getTaskSlice(
+            @RequestParam(required = false) String authorEmail,
+            @RequestParam(required = false) String executorEmail,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(defaultValue = "ID") TaskSort sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(taskService.getTaskSlice(authorEmail, executorEmail, status, priority,
+                sort, direction, page, size));
+    }
+
+    @Operation(summary = "Список задач с курсорной пагинацией (ADMIN)",
+            description = "Возвращает задачи после переданного курсора. Курсор следующей страницы находится в поле next; "
+                    + "фильтры и сортировка должны совпадать с запросом, выдавшим курсор")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задачи успешно найдены"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<TaskCursorPage> getTasksAfter(
+            @RequestParam(required = false) String authorEmail,
+            @RequestParam(required = false) String executorEmail,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(defaultValue = "ID") TaskSort sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(taskService.getTasksAfter(authorEmail, executorEmail, status, priority,
+                sort, direction, cursor, size));
+    }
+
+    @Operation(summary = "Поток изменений задач",
+            description = "Server-Sent Events: создание, смена статуса, приоритета и исполнителя, новые комментарии "
+                    + "и удаление задач. Пользователь получает изменения своих задач, администратор - всех. "
+                    + "После переподключения клиент должен заново загрузить задачи")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Поток событий открыт")
+    })
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return taskEventBroadcaster.subscribe(SecurityUtils.currentUser());
+    }
+
+    @Operation(summary = "Количество задач по фильтру (ADMIN)",
+            description = "Каждый параметр можно передать несколько раз: значения одного параметра объединяются по ИЛИ, "
+                    + "разные параметры - по И")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Количество успешно посчитано")
+    })
+    @GetMapping("/count")
+    public ResponseEntity<TaskCountResponse> countTasks(
+            @RequestParam(required = false) Set<String> authorEmail,
+            @RequestParam(required = false) Set<String> executorEmail,
+            @RequestParam(required = false) Set<Status> status,
+            @RequestParam(required = false) Set<Priority> priority) {
+        return ResponseEntity.ok(new TaskCountResponse(
+                taskService.countTasks(authorEmail, executorEmail, status, priority)));
+    }
+
+    @Operation(summary = "Комментарии задачи (ADMIN)",
+            description = "Возвращает комментарии от новых к старым. Без курсора - последние size комментариев; "
+                    + "before - более старые, чем курсор; after - более новые, чем курсор")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Комментарии успешно найдены"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
     @GetMapping("/{taskId}/comments")
-    public ResponseEntity<List<CommentResponse>> getCommentsByTask(@PathVariable Long taskId) {
-        List<CommentResponse> comments = taskService.getCommentsByTask(taskId);
-        return ResponseEntity.ok(comments);
+    public ResponseEntity<CommentPage> getCommentsByTask(
+            @PathVariable Long taskId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(MAX_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(taskService.getCommentsByTask(taskId, before, after, size));
+    }
+
+    private static ResponseEntity<TaskResponse> withETag(TaskResponse task) {
+        return ResponseEntity.ok().eTag(ETags.of(task.getVersion())).body(task);
     }
 }
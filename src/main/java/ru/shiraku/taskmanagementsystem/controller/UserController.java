@@ -9,12 +9,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import ru.shiraku.taskmanagementsystem.model.TaskField;
 import ru.shiraku.taskmanagementsystem.model.dto.LoginRequest;
 import ru.shiraku.taskmanagementsystem.model.dto.RegisterRequest;
 import ru.shiraku.taskmanagementsystem.model.dto.UserResponse;
 import ru.shiraku.taskmanagementsystem.service.TaskService;
 import ru.shiraku.taskmanagementsystem.service.UserService;
 
+import java.util.Set;
+
 
 @RestController
 @RequestMapping("/api/user")
@@ -32,7 +35,8 @@ public class UserController {
             description = "Регистрирует пользователя на основе входных данных")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Пользователь успешно создан"),
-            @ApiResponse(responseCode = "400", description = "Некорректные входные данные")
+            @ApiResponse(responseCode = "400", description = "Некорректные входные данные"),
+            @ApiResponse(responseCode = "503", description = "Сервер перегружен, повторите запрос позже")
     })
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
@@ -45,7 +49,8 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Пользователь успешно вошел"),
             @ApiResponse(responseCode = "400", description = "Некорректные входные данные"),
-            @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден"),
+            @ApiResponse(responseCode = "503", description = "Сервер перегружен, повторите запрос позже")
     })
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
@@ -53,13 +58,19 @@ public class UserController {
     }
 
     @Operation(summary = "Задачи пользователя",
-            description = "Выполняет поиск задач пользователя на основе входных данных")
+            description = "Выполняет поиск задач пользователя на основе входных данных. "
+                    + "Параметр fields (например, taskTitle,taskStatus) ограничивает ответ перечисленными полями")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Задачи успешно найдены"),
+            @ApiResponse(responseCode = "400", description = "Неизвестное поле в fields"),
     })
     @GetMapping("/tasks")
-    public ResponseEntity<?> getTasks(){
+    public ResponseEntity<?> getTasks(@RequestParam(required = false) String fields){
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        Set<TaskField> requested = TaskField.parse(fields);
+        if (requested != null) {
+            return ResponseEntity.ok(taskService.getTasksByExecutor(email, requested));
+        }
         return ResponseEntity.ok(taskService.getTasksByExecutor(email));
     }
 }
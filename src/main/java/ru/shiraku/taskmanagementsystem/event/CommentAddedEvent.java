@@ -0,0 +1,19 @@
+package ru.shiraku.taskmanagementsystem.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.shiraku.taskmanagementsystem.model.dto.CommentResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by {@code TaskService} when comments are added to a task.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentAddedEvent {
+    private final Long taskId;
+    private final UUID executorId;
+    private final List<CommentResponse> comments;
+}
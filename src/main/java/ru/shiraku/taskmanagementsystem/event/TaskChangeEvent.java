@@ -0,0 +1,21 @@
+package ru.shiraku.taskmanagementsystem.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.shiraku.taskmanagementsystem.model.TaskSnapshot;
+
+/**
+ * Published by {@code TaskService} for every task mutation. {@code before} is null for
+ * a created task and {@code after} is null for a deleted one. Listeners should use
+ * {@code @TransactionalEventListener} so that only committed changes are observed.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskChangeEvent {
+    private final TaskSnapshot before;
+    private final TaskSnapshot after;
+
+    public Long getTaskId() {
+        return after != null ? after.getTaskId() : before.getTaskId();
+    }
+}
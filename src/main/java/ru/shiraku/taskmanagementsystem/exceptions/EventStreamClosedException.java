@@ -0,0 +1,7 @@
+package ru.shiraku.taskmanagementsystem.exceptions;
+
+public class EventStreamClosedException extends RuntimeException {
+    public EventStreamClosedException(String message) {
+        super(message);
+    }
+}
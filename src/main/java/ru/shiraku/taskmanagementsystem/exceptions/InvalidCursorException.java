@@ -0,0 +1,7 @@
+package ru.shiraku.taskmanagementsystem.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
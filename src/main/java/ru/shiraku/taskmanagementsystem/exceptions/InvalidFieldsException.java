@@ -0,0 +1,7 @@
+package ru.shiraku.taskmanagementsystem.exceptions;
+
+public class InvalidFieldsException extends RuntimeException {
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.shiraku.taskmanagementsystem.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.shiraku.taskmanagementsystem.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class TaskStatsNotLoadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TaskStatsNotLoadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,213 @@
+package ru.shiraku.taskmanagementsystem.filter;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns requests away with 503 and {@code Retry-After} before they take a request thread's
+ * worth of work, instead of letting them queue for a database connection. Each route class
+ * ({@code auth}, {@code read}, {@code write}, {@code admin}) has its own limit on requests in
+ * flight ({@code admission.<class>.max-concurrent}) and is shed while more than
+ * {@code admission.<class>.max-pool-waiting} threads wait for a connection in any Hikari pool,
+ * so that admin reads and login bursts give way before the interactive task API does.
+ * A negative value switches the check off. Rejections are counted as {@code admission.rejected}
+ * tagged with the class and the reason ({@code concurrency} or {@code pool}).
+ * <p>
+ * Streaming responses hold their slot until the stream completes. Task event streams are
+ * idle connections and are not limited here.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final Set<String> AUTH_PATHS = Set.of("/api/user/login", "/api/user/register");
+    private static final String EVENTS_PATH = "/api/tasks/events";
+
+    public enum RouteClass {
+        AUTH(20, 10), READ(150, 20), WRITE(100, 20), ADMIN(12, 0);
+
+        private final int defaultMaxConcurrent;
+        private final int defaultMaxPoolWaiting;
+
+        RouteClass(int defaultMaxConcurrent, int defaultMaxPoolWaiting) {
+            this.defaultMaxConcurrent = defaultMaxConcurrent;
+            this.defaultMaxPoolWaiting = defaultMaxPoolWaiting;
+        }
+
+        public String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final Map<RouteClass, Gate> gates = new EnumMap<>(RouteClass.class);
+    private final ObjectProvider<DataSource> dataSources;
+    private final long retryAfterSeconds;
+    private volatile List<HikariDataSource> pools;
+
+    public AdmissionControlFilter(Environment environment,
+                                  ObjectProvider<DataSource> dataSources,
+                                  MeterRegistry meterRegistry) {
+        for (RouteClass routeClass : RouteClass.values()) {
+            String prefix = "admission." + routeClass.tag();
+            gates.put(routeClass, new Gate(routeClass,
+                    environment.getProperty(prefix + ".max-concurrent", Integer.class, routeClass.defaultMaxConcurrent),
+                    environment.getProperty(prefix + ".max-pool-waiting", Integer.class, routeClass.defaultMaxPoolWaiting),
+                    meterRegistry));
+        }
+        this.dataSources = dataSources;
+        this.retryAfterSeconds = environment.getProperty("admission.retry-after", Long.class, 1L);
+    }
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request,
+                                    @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain filterChain)
+            throws ServletException, IOException {
+        RouteClass routeClass = classify(request);
+        if (routeClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Gate gate = gates.get(routeClass);
+        if (gate.maxPoolWaiting >= 0 && threadsAwaitingConnection() > gate.maxPoolWaiting) {
+            reject(response, gate.rejectedOnPool);
+            return;
+        }
+        if (!gate.tryEnter()) {
+            reject(response, gate.rejectedOnConcurrency);
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new OnAsyncComplete(gate::exit));
+            } else {
+                gate.exit();
+            }
+        }
+    }
+
+    public static RouteClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith("/api/") || path.equals(EVENTS_PATH)) {
+            return null;
+        }
+        if (AUTH_PATHS.contains(path)) {
+            return RouteClass.AUTH;
+        }
+        if (path.startsWith("/api/admin/")) {
+            return RouteClass.ADMIN;
+        }
+        String method = request.getMethod();
+        return method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS")
+                ? RouteClass.READ : RouteClass.WRITE;
+    }
+
+    private int threadsAwaitingConnection() {
+        int waiting = 0;
+        for (HikariDataSource pool : pools()) {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            if (bean != null) {
+                waiting = Math.max(waiting, bean.getThreadsAwaitingConnection());
+            }
+        }
+        return waiting;
+    }
+
+    // the data sources are looked up on first use: filters are created before the rest of the context
+    private List<HikariDataSource> pools() {
+        List<HikariDataSource> resolved = pools;
+        if (resolved == null) {
+            resolved = dataSources.orderedStream()
+                    .map(dataSource -> DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class))
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList();
+            pools = resolved;
+        }
+        return resolved;
+    }
+
+    private void reject(HttpServletResponse response, Counter counter) throws IOException {
+        counter.increment();
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("Server is busy, please retry later.");
+    }
+
+    private static class Gate {
+        private final Semaphore permits;
+        private final int maxPoolWaiting;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter rejectedOnConcurrency;
+        private final Counter rejectedOnPool;
+
+        Gate(RouteClass routeClass, int maxConcurrent, int maxPoolWaiting, MeterRegistry meterRegistry) {
+            this.permits = maxConcurrent >= 0 ? new Semaphore(maxConcurrent) : null;
+            this.maxPoolWaiting = maxPoolWaiting;
+            this.rejectedOnConcurrency = rejected(routeClass, "concurrency", meterRegistry);
+            this.rejectedOnPool = rejected(routeClass, "pool", meterRegistry);
+            Gauge.builder("admission.in.flight", inFlight, AtomicInteger::get)
+                    .description("Admitted requests still being processed")
+                    .tag("class", routeClass.tag())
+                    .register(meterRegistry);
+        }
+
+        private static Counter rejected(RouteClass routeClass, String reason, MeterRegistry meterRegistry) {
+            return Counter.builder("admission.rejected")
+                    .description("Requests turned away with 503 by admission control")
+                    .tag("class", routeClass.tag())
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+
+        boolean tryEnter() {
+            if (permits != null && !permits.tryAcquire()) {
+                return false;
+            }
+            inFlight.incrementAndGet();
+            return true;
+        }
+
+        void exit() {
+            inFlight.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+}
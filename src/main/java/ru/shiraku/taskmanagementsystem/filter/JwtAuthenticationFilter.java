@@ -11,8 +11,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import ru.shiraku.taskmanagementsystem.service.UserService;
-import ru.shiraku.taskmanagementsystem.utils.JWTUtils;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+import ru.shiraku.taskmanagementsystem.utils.VerifiedTokenCache;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -20,12 +20,10 @@ import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    private final JWTUtils jwtUtils;
-    private final UserService userService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public JwtAuthenticationFilter(JWTUtils jwtUtils, UserService userService) {
-        this.jwtUtils = jwtUtils;
-        this.userService = userService;
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
@@ -35,15 +33,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         String token = extractTokenFromRequest(request);
 
-        if (token != null && jwtUtils.isTokenValid(token)
-        ) {
-            String email = jwtUtils.extractEmail(token);
-            String role = jwtUtils.extractRole(token);
+        if (token != null) {
+            AuthenticatedUser user = verifiedTokenCache.verify(token);
 
-            if (email != null && role != null) {
-                List<SimpleGrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(role));
+            if (user != null) {
+                List<SimpleGrantedAuthority> authorities = Collections.singletonList(
+                        new SimpleGrantedAuthority(user.getAuthority()));
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        email,
+                        user,
                         null,
                         authorities
                 );
@@ -0,0 +1,28 @@
+package ru.shiraku.taskmanagementsystem.filter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+/**
+ * Runs an action when an async request completes. The container completes the request
+ * after a timeout or an error as well, so the action runs however the request ends.
+ */
+record OnAsyncComplete(Runnable action) implements AsyncListener {
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        action.run();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+}
@@ -0,0 +1,68 @@
+package ru.shiraku.taskmanagementsystem.filter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.shiraku.taskmanagementsystem.utils.RequestQueryCounter;
+import ru.shiraku.taskmanagementsystem.utils.RequestRoutes;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements, entity loads and collection fetches each request made
+ * on its own thread, as {@code http.server.requests.queries}, {@code .entity.loads} and
+ * {@code .collection.fetches} tagged with the method and route template, next to the
+ * {@code http.server.requests} latency timer. Async requests are recorded when they
+ * complete, including what their handler did on the bulk executor.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request,
+                                    @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryCounter.Counts counts = RequestQueryCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryCounter.stop();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new OnAsyncComplete(() -> record(request, counts)));
+            } else {
+                record(request, counts);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestQueryCounter.Counts counts) {
+        String method = request.getMethod();
+        String uri = RequestRoutes.of(request);
+        record("http.server.requests.queries", method, uri, counts.getStatements());
+        record("http.server.requests.entity.loads", method, uri, counts.getEntityLoads());
+        record("http.server.requests.collection.fetches", method, uri, counts.getCollectionFetches());
+    }
+
+    private void record(String name, String method, String uri, int amount) {
+        DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(amount);
+    }
+}
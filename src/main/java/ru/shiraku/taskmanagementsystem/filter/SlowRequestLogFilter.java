@@ -0,0 +1,94 @@
+package ru.shiraku.taskmanagementsystem.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.shiraku.taskmanagementsystem.utils.JsonLog;
+import ru.shiraku.taskmanagementsystem.utils.RequestQueryCounter;
+import ru.shiraku.taskmanagementsystem.utils.RequestRoutes;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs requests slower than {@code slow-request-log.threshold}, and a sampled share of the
+ * faster ones, to the {@code slow-request} logger as JSON, with the route, status and the
+ * statements, entity loads and collection fetches counted for the request. Async requests
+ * are logged when they complete, with the time and queries of their handler included.
+ * Event streams are left out: they last as long as the client stays subscribed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SlowRequestLogFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger("slow-request");
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+
+    public SlowRequestLogFilter(@Value("${slow-request-log.threshold:1s}") Duration threshold,
+                                @Value("${slow-request-log.sample-rate:0}") double sampleRate) {
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request,
+                                    @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestQueryCounter.Counts counts = RequestQueryCounter.current();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                log(request, response, System.nanoTime() - start, counts);
+            } else if (!isEventStream(response)) {
+                request.getAsyncContext().addListener(new OnAsyncComplete(
+                        () -> log(request, response, System.nanoTime() - start, counts)));
+            }
+        }
+    }
+
+    private static boolean isEventStream(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, long nanos,
+                     RequestQueryCounter.Counts counts) {
+        boolean slow = nanos >= thresholdNanos;
+        if (slow || sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            write(request, response, nanos, slow, counts);
+        }
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, long nanos, boolean slow,
+                       RequestQueryCounter.Counts counts) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("durationMs", JsonLog.millis(nanos));
+        entry.put("method", request.getMethod());
+        entry.put("route", RequestRoutes.of(request));
+        entry.put("status", response.getStatus());
+        if (counts != null) {
+            entry.put("statements", counts.getStatements());
+            entry.put("entityLoads", counts.getEntityLoads());
+            entry.put("collectionFetches", counts.getCollectionFetches());
+        }
+        entry.put("sampled", !slow);
+        JsonLog.write(log, entry, slow);
+    }
+}
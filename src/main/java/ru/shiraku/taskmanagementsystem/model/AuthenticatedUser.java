@@ -0,0 +1,36 @@
+package ru.shiraku.taskmanagementsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Caller identity built from the JWT claims. It is stored as the authentication
+ * principal, so services can authorize and attribute work without loading the user.
+ * {@link #getName()} returns the email to stay compatible with {@code Authentication#getName()}.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements Principal {
+    private final UUID id;
+    private final String email;
+    private final Role role;
+    private final String displayName;
+    private final Instant expiresAt;
+
+    public String getAuthority() {
+        return "ROLE_" + role.name();
+    }
+
+    public boolean isAdmin() {
+        return role == Role.ADMIN;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
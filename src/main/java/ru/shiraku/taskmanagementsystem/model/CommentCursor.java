@@ -0,0 +1,43 @@
+package ru.shiraku.taskmanagementsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.shiraku.taskmanagementsystem.exceptions.InvalidCursorException;
+import ru.shiraku.taskmanagementsystem.model.dto.CommentResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of a comment in the {@code (timestamp, id)} order of its task.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentCursor {
+    private final LocalDateTime timestamp;
+    private final long id;
+
+    public static CommentCursor of(CommentResponse comment) {
+        return new CommentCursor(comment.getTimestamp(), comment.getId());
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CommentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Invalid cursor.");
+            }
+            return new CommentCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor.");
+        }
+    }
+}
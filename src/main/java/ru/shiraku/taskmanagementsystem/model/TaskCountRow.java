@@ -0,0 +1,19 @@
+package ru.shiraku.taskmanagementsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Number of tasks sharing a status, priority and executor.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskCountRow {
+    private final Status status;
+    private final Priority priority;
+    private final UUID executorId;
+    private final String executorEmail;
+    private final long count;
+}
@@ -0,0 +1,46 @@
+package ru.shiraku.taskmanagementsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import ru.shiraku.taskmanagementsystem.exceptions.InvalidCursorException;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskSummaryResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last task returned by a keyset page: the sort it was produced with
+ * and the {@code (sortKey, taskId)} pair the next page has to start after.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskCursor {
+    private final TaskSort sort;
+    private final Sort.Direction direction;
+    private final int rank;
+    private final long taskId;
+
+    public static TaskCursor after(TaskSort sort, Sort.Direction direction, TaskSummaryResponse task) {
+        return new TaskCursor(sort, direction, sort.rankOf(task), task.getTaskId());
+    }
+
+    public String encode() {
+        String raw = sort.name() + ":" + direction.name() + ":" + rank + ":" + taskId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 4) {
+                throw new InvalidCursorException("Invalid cursor.");
+            }
+            return new TaskCursor(TaskSort.valueOf(parts[0]), Sort.Direction.valueOf(parts[1]),
+                    Integer.parseInt(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor.");
+        }
+    }
+}
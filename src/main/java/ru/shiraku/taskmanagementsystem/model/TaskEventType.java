@@ -0,0 +1,5 @@
+package ru.shiraku.taskmanagementsystem.model;
+
+public enum TaskEventType {
+    CREATED, STATUS_CHANGED, PRIORITY_CHANGED, EXECUTOR_CHANGED, COMMENT_ADDED, DELETED
+}
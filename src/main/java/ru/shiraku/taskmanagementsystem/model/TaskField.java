@@ -0,0 +1,63 @@
+package ru.shiraku.taskmanagementsystem.model;
+
+import lombok.Getter;
+import ru.shiraku.taskmanagementsystem.exceptions.InvalidFieldsException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Task attributes a client can ask for with {@code ?fields=}, named as in the JSON
+ * responses. The task id is always returned.
+ */
+@Getter
+public enum TaskField {
+    TASK_ID("taskId"),
+    TASK_TITLE("taskTitle"),
+    TASK_DESCRIPTION("taskDescription"),
+    PRIORITY("priority"),
+    TASK_STATUS("taskStatus"),
+    AUTHOR("author"),
+    AUTHOR_EMAIL("authorEmail"),
+    EXECUTOR("executor"),
+    EXECUTOR_EMAIL("executorEmail"),
+    COMMENT_COUNT("commentCount"),
+    LAST_COMMENT_AT("lastCommentAt"),
+    VERSION("version"),
+    /** Only for a single task: lists never carry comment bodies. */
+    COMMENTS("comments");
+
+    private final String jsonName;
+
+    TaskField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public boolean isAggregate() {
+        return this == COMMENT_COUNT || this == LAST_COMMENT_AT;
+    }
+
+    /**
+     * @param fields comma separated JSON names, e.g. {@code taskTitle,taskStatus}
+     * @return the requested fields plus the task id, or {@code null} if none were requested
+     */
+    public static Set<TaskField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<TaskField> parsed = EnumSet.of(TASK_ID);
+        for (String name : fields.split(",")) {
+            parsed.add(byJsonName(name.trim()));
+        }
+        return parsed;
+    }
+
+    private static TaskField byJsonName(String name) {
+        for (TaskField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new InvalidFieldsException("Unknown field: " + name);
+    }
+}
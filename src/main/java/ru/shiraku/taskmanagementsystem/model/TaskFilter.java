@@ -0,0 +1,20 @@
+package ru.shiraku.taskmanagementsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Task filter where values of one attribute are OR-ed and attributes are AND-ed.
+ * A {@code null} set leaves the attribute unconstrained; an empty set matches nothing.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskFilter {
+    private final Set<Status> statuses;
+    private final Set<Priority> priorities;
+    private final Set<UUID> authorIds;
+    private final Set<UUID> executorIds;
+}
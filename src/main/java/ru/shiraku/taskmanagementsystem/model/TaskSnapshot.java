@@ -0,0 +1,28 @@
+package ru.shiraku.taskmanagementsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import ru.shiraku.taskmanagementsystem.model.entity.TaskEntity;
+
+import java.util.UUID;
+
+/**
+ * The filterable attributes of a task: what in-memory task views need to know
+ * to place a task without loading it.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TaskSnapshot {
+    private final Long taskId;
+    private final Status status;
+    private final Priority priority;
+    private final UUID authorId;
+    private final UUID executorId;
+
+    public static TaskSnapshot of(TaskEntity task) {
+        return new TaskSnapshot(task.getTaskId(), task.getTaskStatus(), task.getPriority(),
+                task.getAuthor().getId(), task.getExecutor().getId());
+    }
+}
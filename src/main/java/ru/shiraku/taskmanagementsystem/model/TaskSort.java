@@ -0,0 +1,31 @@
+package ru.shiraku.taskmanagementsystem.model;
+
+import ru.shiraku.taskmanagementsystem.model.dto.TaskSummaryResponse;
+
+/**
+ * Stable sort keys for task lists. Enum attributes are ordered by their declaration
+ * order (HIGH before LOW, TODO before COMPLETED); the task id always breaks ties.
+ */
+public enum TaskSort {
+    ID(null),
+    PRIORITY("priority"),
+    STATUS("taskStatus");
+
+    private final String attribute;
+
+    TaskSort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public int rankOf(TaskSummaryResponse task) {
+        return switch (this) {
+            case ID -> 0;
+            case PRIORITY -> task.getPriority().ordinal();
+            case STATUS -> task.getTaskStatus().ordinal();
+        };
+    }
+}
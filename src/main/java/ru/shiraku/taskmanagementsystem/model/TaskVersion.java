@@ -0,0 +1,16 @@
+package ru.shiraku.taskmanagementsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * What a conditional GET needs to know about a task: who may see it and its version.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskVersion {
+    private final UUID executorId;
+    private final Long version;
+}
@@ -0,0 +1,22 @@
+package ru.shiraku.taskmanagementsystem.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Модель передачи нескольких комментариев")
+public class AddCommentsRequest {
+    @Schema(description = "Комментарии", example = "[\"Как успехи?\", \"Жду отчет\"]")
+    @NotEmpty(message = "Список комментариев не должен быть пустым.")
+    @Size(max = 100, message = "За один запрос можно добавить не более 100 комментариев.")
+    private List<@NotBlank(message = "Комментарий не должен быть пустым.") String> comments;
+}
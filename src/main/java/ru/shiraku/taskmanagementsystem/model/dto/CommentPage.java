@@ -0,0 +1,19 @@
+package ru.shiraku.taskmanagementsystem.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Страница комментариев задачи, от новых к старым")
+public class CommentPage {
+    @Schema(description = "Комментарии страницы")
+    private List<CommentResponse> content;
+    @Schema(description = "Курсор для загрузки более старых комментариев (параметр before), отсутствует, если их нет")
+    private String older;
+    @Schema(description = "Курсор для загрузки более новых комментариев (параметр after), отсутствует на пустой странице")
+    private String newer;
+}
@@ -2,6 +2,7 @@ package ru.shiraku.taskmanagementsystem.model.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.shiraku.taskmanagementsystem.model.Priority;
@@ -18,7 +19,7 @@ public class CreateTaskRequest {
     private String taskDescription;
 
     @Schema(description = "Приоритет задачи", example = "HIGH")
-    @NotBlank(message = "Приоритет не должен быть пустым.")
+    @NotNull(message = "Приоритет не должен быть пустым.")
     private Priority priority;
 
     @Schema(description = "Адрес электронной почты исполнителя задачи", example = "S.Nikolay@gmail.com")
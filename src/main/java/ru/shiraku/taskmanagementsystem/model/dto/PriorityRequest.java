@@ -1,7 +1,7 @@
 package ru.shiraku.taskmanagementsystem.model.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.shiraku.taskmanagementsystem.model.Priority;
@@ -11,6 +11,6 @@ import ru.shiraku.taskmanagementsystem.model.Priority;
 @Schema(description = "Модель передачи приоритета задачи")
 public class PriorityRequest {
     @Schema(description = "Новый приоритет задачи", example = "LOW")
-    @NotBlank(message = "Приоритет не должен быть пустым.")
+    @NotNull(message = "Приоритет не должен быть пустым.")
     private Priority priority;
 }
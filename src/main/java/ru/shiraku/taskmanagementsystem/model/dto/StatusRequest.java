@@ -1,7 +1,7 @@
 package ru.shiraku.taskmanagementsystem.model.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.shiraku.taskmanagementsystem.model.Status;
@@ -11,6 +11,6 @@ import ru.shiraku.taskmanagementsystem.model.Status;
 @Schema(description = "Модель передачи статуса задачи")
 public class StatusRequest {
     @Schema(description = "Статус задачи", example = "IN_PROCESS")
-    @NotBlank(message = "Статус задачи не должен быть пустым.")
+    @NotNull(message = "Статус задачи не должен быть пустым.")
     private Status status;
 }
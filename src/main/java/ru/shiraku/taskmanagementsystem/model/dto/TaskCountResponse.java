@@ -0,0 +1,13 @@
+package ru.shiraku.taskmanagementsystem.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Количество задач, подходящих под фильтр")
+public class TaskCountResponse {
+    @Schema(description = "Количество задач", example = "42")
+    private long count;
+}
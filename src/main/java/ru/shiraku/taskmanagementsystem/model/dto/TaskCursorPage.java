@@ -0,0 +1,17 @@
+package ru.shiraku.taskmanagementsystem.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Страница задач с курсором на следующую страницу")
+public class TaskCursorPage {
+    @Schema(description = "Задачи страницы")
+    private List<TaskSummaryResponse> content;
+    @Schema(description = "Курсор следующей страницы, отсутствует на последней странице")
+    private String next;
+}
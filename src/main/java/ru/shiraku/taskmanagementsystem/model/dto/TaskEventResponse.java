@@ -0,0 +1,24 @@
+package ru.shiraku.taskmanagementsystem.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Status;
+import ru.shiraku.taskmanagementsystem.model.TaskEventType;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Изменение задачи, отправляемое в потоке событий")
+public class TaskEventResponse {
+    @Schema(description = "Тип изменения", example = "STATUS_CHANGED")
+    private TaskEventType type;
+    @Schema(description = "ID задачи", example = "1")
+    private Long taskId;
+    @Schema(description = "Статус задачи после изменения, отсутствует для DELETED и COMMENT_ADDED", example = "IN_PROCESS")
+    private Status status;
+    @Schema(description = "Приоритет задачи после изменения, отсутствует для DELETED и COMMENT_ADDED", example = "HIGH")
+    private Priority priority;
+    @Schema(description = "Добавленный комментарий, только для COMMENT_ADDED")
+    private CommentResponse comment;
+}
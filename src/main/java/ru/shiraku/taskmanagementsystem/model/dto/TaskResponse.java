@@ -32,4 +32,6 @@ public class TaskResponse {
     private String executorEmail;
     @Schema(description = "Комментарии задачи", example = "Требуется подправить ...")
     private List<CommentResponse> comments;
+    @Schema(description = "Версия задачи, совпадает со значением заголовка ETag", example = "3")
+    private Long version;
 }
@@ -0,0 +1,23 @@
+package ru.shiraku.taskmanagementsystem.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Status;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Статистика задач")
+public class TaskStatsResponse {
+    @Schema(description = "Общее количество задач", example = "120")
+    private long total;
+    @Schema(description = "Количество задач по статусам")
+    private Map<Status, Long> byStatus;
+    @Schema(description = "Количество задач по приоритетам")
+    private Map<Priority, Long> byPriority;
+    @Schema(description = "Количество задач по email исполнителя")
+    private Map<String, Long> byExecutor;
+}
@@ -3,16 +3,22 @@ package ru.shiraku.taskmanagementsystem.model.entity;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.shiraku.taskmanagementsystem.config.EntityCacheConfig;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.COMMENTS)
 @Data
 @Schema(description = "Модель комментариев")
-@Table(name = "comments")
+@Table(name = "comments", indexes = @Index(name = "idx_comments_task_timestamp", columnList = "task, timestamp, commentsId"))
 public class CommentEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     @Column(name = "commentsId", updatable = false, nullable = false)
     @Schema(description = "Уникальный идентификатор комментария")
     private Long id;
@@ -5,6 +5,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.shiraku.taskmanagementsystem.config.EntityCacheConfig;
 import ru.shiraku.taskmanagementsystem.model.Priority;
 import ru.shiraku.taskmanagementsystem.model.Status;
 
@@ -12,6 +15,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.TASKS)
 @AllArgsConstructor
 @Data
 @Schema(description = "Модель задач")
@@ -43,25 +48,25 @@ public class TaskEntity {
     @Schema(description = "Статус задачи", example = "TODO")
     private Status taskStatus;
 
-    @Column(name = "author", nullable = false)
-    @Schema(description = "Автор задачи", example = "Иван")
-    private String author;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "author_id", nullable = false)
+    @Schema(description = "Автор задачи")
+    private UserEntity author;
 
-    @Column(name = "authorEmail", nullable = false)
-    @Schema(description = "Адрес электронной почты автора задачи", example = "ivan.A@bk.ru")
-    private String authorEmail;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "executor_id", nullable = false)
+    @Schema(description = "Исполнитель задачи")
+    private UserEntity executor;
 
-    @Column(name = "executor", nullable = false)
-    @Schema(description = "Исполнитель задачи", example = "Николай")
-    private String executor;
-
-    @Column(name = "executorEmail", nullable = false)
-    @Schema(description = "Адрес электронной почты исполнителя задачи", example = "S.Nikolay@gmail.com")
-    private String executorEmail;
+    @Version
+    @Column(name = "version", nullable = false)
+    @Schema(description = "Версия задачи, увеличивается при каждом изменении")
+    private Long version;
 
     @Column(name = "comments", nullable = false)
     @Schema(description = "Комментарии задачи", example = "Требуется подправить ...")
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.TASK_COMMENTS)
     private List<CommentEntity> comments = new ArrayList<>();
 
 }
@@ -3,11 +3,16 @@ package ru.shiraku.taskmanagementsystem.model.entity;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.shiraku.taskmanagementsystem.config.EntityCacheConfig;
 import ru.shiraku.taskmanagementsystem.model.Role;
 
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.USERS)
 @Data
 @Schema(description = "Модель пользователя")
 @Table(name = "users")
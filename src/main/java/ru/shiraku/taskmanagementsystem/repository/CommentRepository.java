@@ -1,9 +1,45 @@
 package ru.shiraku.taskmanagementsystem.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.shiraku.taskmanagementsystem.model.dto.CommentResponse;
 import ru.shiraku.taskmanagementsystem.model.entity.CommentEntity;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
+
+    @Query("""
+            select new ru.shiraku.taskmanagementsystem.model.dto.CommentResponse(c.id, c.content, c.author.email, c.timestamp)
+            from CommentEntity c
+            where c.task.taskId = :taskId
+            order by c.timestamp desc, c.id desc""")
+    List<CommentResponse> findLatest(Long taskId, Limit limit);
+
+    @Query("""
+            select new ru.shiraku.taskmanagementsystem.model.dto.CommentResponse(c.id, c.content, c.author.email, c.timestamp)
+            from CommentEntity c
+            where c.task.taskId = :taskId
+              and (c.timestamp, c.id) < (:timestamp, :id)
+            order by c.timestamp desc, c.id desc""")
+    List<CommentResponse> findOlder(Long taskId, LocalDateTime timestamp, Long id, Limit limit);
+
+    @Query("""
+            select new ru.shiraku.taskmanagementsystem.model.dto.CommentResponse(c.id, c.content, c.author.email, c.timestamp)
+            from CommentEntity c
+            where c.task.taskId = :taskId
+              and (c.timestamp, c.id) > (:timestamp, :id)
+            order by c.timestamp asc, c.id asc""")
+    List<CommentResponse> findNewer(Long taskId, LocalDateTime timestamp, Long id, Limit limit);
+
+    @Query("""
+            select new ru.shiraku.taskmanagementsystem.model.dto.CommentResponse(c.id, c.content, c.author.email, c.timestamp)
+            from CommentEntity c
+            where c.task.taskId = :taskId
+            order by c.timestamp asc, c.id asc""")
+    List<CommentResponse> findAllByTask(Long taskId);
 }
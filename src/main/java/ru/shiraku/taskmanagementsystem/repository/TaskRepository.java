@@ -1,17 +1,82 @@
 package ru.shiraku.taskmanagementsystem.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.shiraku.taskmanagementsystem.model.TaskCountRow;
+import ru.shiraku.taskmanagementsystem.model.TaskSnapshot;
+import ru.shiraku.taskmanagementsystem.model.TaskVersion;
 import ru.shiraku.taskmanagementsystem.model.entity.TaskEntity;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<TaskEntity, Long>, JpaSpecificationExecutor<TaskEntity> {
-    Optional<List<TaskEntity>> findAllByExecutorEmail(String executorEmail);
+public interface TaskRepository extends JpaRepository<TaskEntity, Long>, JpaSpecificationExecutor<TaskEntity>,
+        TaskSummaryRepository {
+
+    /**
+     * Loads the task together with its author and executor in one joined select,
+     * since every task response shows their names and emails.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"author", "executor"})
+    Optional<TaskEntity> findById(Long taskId);
+
+    @Query("select new ru.shiraku.taskmanagementsystem.model.TaskVersion(t.executor.id, t.version) "
+            + "from TaskEntity t where t.taskId = :taskId")
+    Optional<TaskVersion> findVersion(Long taskId);
+
+    /**
+     * Bumps the version of a task whose comments changed without loading it.
+     */
+    @Modifying
+    @Query("update TaskEntity t set t.version = t.version + 1 where t.taskId = :taskId")
+    int incrementVersion(Long taskId);
+
+    @Query("select t.executor.id from TaskEntity t where t.taskId = :taskId")
+    Optional<UUID> findExecutorId(Long taskId);
+
+    /**
+     * Loads the task with a row lock and bumps its version right away. Used instead of
+     * {@link #incrementVersion} when the entity cache is on: a bulk update would drop the
+     * whole tasks region, while this leaves the other entries alone; the task's own entry is
+     * evicted after commit by {@link ru.shiraku.taskmanagementsystem.config.EntityCacheConfig}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    @Query("select t from TaskEntity t where t.taskId = :taskId")
+    Optional<TaskEntity> lockAndIncrementVersion(Long taskId);
+
+    @Query("select new ru.shiraku.taskmanagementsystem.model.TaskSnapshot("
+            + "t.taskId, t.taskStatus, t.priority, t.author.id, t.executor.id) from TaskEntity t")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TaskSnapshot> streamSnapshots();
+
+    @Query("select new ru.shiraku.taskmanagementsystem.model.TaskSnapshot("
+            + "t.taskId, t.taskStatus, t.priority, t.author.id, t.executor.id) from TaskEntity t where t.taskId = :taskId")
+    Optional<TaskSnapshot> findSnapshot(Long taskId);
+
+    /**
+     * Read-write on purpose so that it runs on the primary: the counters it is compared
+     * with follow committed changes, which a lagging replica may not have yet.
+     */
+    @Transactional
+    @Query("select new ru.shiraku.taskmanagementsystem.model.TaskCountRow("
+            + "t.taskStatus, t.priority, e.id, e.email, count(t)) from TaskEntity t join t.executor e "
+            + "group by t.taskStatus, t.priority, e.id, e.email")
+    List<TaskCountRow> countByStatusPriorityAndExecutor();
 }
@@ -0,0 +1,34 @@
+package ru.shiraku.taskmanagementsystem.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.shiraku.taskmanagementsystem.model.TaskCursor;
+import ru.shiraku.taskmanagementsystem.model.TaskField;
+import ru.shiraku.taskmanagementsystem.model.TaskSort;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskSummaryResponse;
+import ru.shiraku.taskmanagementsystem.model.entity.TaskEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface TaskSummaryRepository {
+    Page<TaskSummaryResponse> findSummaries(Specification<TaskEntity> spec, Pageable pageable);
+
+    Slice<TaskSummaryResponse> findSummarySlice(Specification<TaskEntity> spec, Pageable pageable);
+
+    List<TaskSummaryResponse> findSummaries(Specification<TaskEntity> spec);
+
+    Stream<TaskSummaryResponse> streamSummaries();
+
+    List<TaskSummaryResponse> findSummariesAfter(Specification<TaskEntity> spec, TaskSort sort,
+                                                 Sort.Direction direction, TaskCursor after, int limit);
+
+    Page<Map<String, Object>> findFields(Specification<TaskEntity> spec, Set<TaskField> fields, Pageable pageable);
+
+    List<Map<String, Object>> findFields(Specification<TaskEntity> spec, Set<TaskField> fields);
+}
@@ -0,0 +1,279 @@
+package ru.shiraku.taskmanagementsystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import ru.shiraku.taskmanagementsystem.model.TaskCursor;
+import ru.shiraku.taskmanagementsystem.model.TaskField;
+import ru.shiraku.taskmanagementsystem.model.TaskSort;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskSummaryResponse;
+import ru.shiraku.taskmanagementsystem.model.entity.CommentEntity;
+import ru.shiraku.taskmanagementsystem.model.entity.TaskEntity;
+import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Loads task list rows with one aggregate query: author and executor names come from
+ * joins on the user foreign keys, and the comments are joined only to compute their
+ * count and the latest timestamp, so no association is initialized while building a list.
+ */
+public class TaskSummaryRepositoryImpl implements TaskSummaryRepository {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    public TaskSummaryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<TaskSummaryResponse> findSummaries(Specification<TaskEntity> spec, Pageable pageable) {
+        TypedQuery<TaskSummaryResponse> query = pagedQuery(spec, pageable, 0);
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<TaskSummaryResponse> findSummarySlice(Specification<TaskEntity> spec, Pageable pageable) {
+        List<TaskSummaryResponse> rows = pagedQuery(spec, pageable, 1).getResultList();
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        List<TaskSummaryResponse> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public List<TaskSummaryResponse> findSummaries(Specification<TaskEntity> spec) {
+        return entityManager.createQuery(summaryQuery(spec, TaskSort.ID, Sort.Direction.ASC, null)).getResultList();
+    }
+
+    /**
+     * Forward-only read of every task in id order. Rows are DTOs rather than managed
+     * entities, so the persistence context does not grow while the stream is consumed.
+     */
+    @Override
+    public Stream<TaskSummaryResponse> streamSummaries() {
+        return entityManager.createQuery(summaryQuery(null, TaskSort.ID, Sort.Direction.ASC, null))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<TaskSummaryResponse> findSummariesAfter(Specification<TaskEntity> spec, TaskSort sort,
+                                                        Sort.Direction direction, TaskCursor after, int limit) {
+        return entityManager.createQuery(summaryQuery(spec, sort, direction, after))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFields(Specification<TaskEntity> spec, Set<TaskField> fields,
+                                                Pageable pageable) {
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc(TaskSort.ID.name()));
+        TypedQuery<Tuple> query = entityManager.createQuery(
+                fieldQuery(spec, fields, TaskSort.valueOf(order.getProperty()), order.getDirection()));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(toRows(query.getResultList(), fields), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(Specification<TaskEntity> spec, Set<TaskField> fields) {
+        return toRows(entityManager.createQuery(fieldQuery(spec, fields, TaskSort.ID, Sort.Direction.ASC))
+                .getResultList(), fields);
+    }
+
+    /**
+     * Same rows and order as {@link #summaryQuery}, but selecting only the requested
+     * columns: the user joins are added only for author or executor fields, and the
+     * comment join with its grouping only for the comment aggregates.
+     */
+    private CriteriaQuery<Tuple> fieldQuery(Specification<TaskEntity> spec, Set<TaskField> fields,
+                                            TaskSort sort, Sort.Direction direction) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<TaskEntity> task = query.from(TaskEntity.class);
+        Join<TaskEntity, UserEntity> author = null;
+        Join<TaskEntity, UserEntity> executor = null;
+        Join<TaskEntity, CommentEntity> comments = null;
+
+        List<Expression<?>> columns = new ArrayList<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (TaskField field : fields) {
+            Expression<?> column = switch (field) {
+                case TASK_ID -> task.get("taskId");
+                case TASK_TITLE -> task.get("taskTitle");
+                case TASK_DESCRIPTION -> task.get("taskDescription");
+                case PRIORITY -> task.get("priority");
+                case TASK_STATUS -> task.get("taskStatus");
+                case VERSION -> task.get("version");
+                case AUTHOR, AUTHOR_EMAIL -> {
+                    author = author != null ? author : task.join("author");
+                    yield author.get(field == TaskField.AUTHOR ? "name" : "email");
+                }
+                case EXECUTOR, EXECUTOR_EMAIL -> {
+                    executor = executor != null ? executor : task.join("executor");
+                    yield executor.get(field == TaskField.EXECUTOR ? "name" : "email");
+                }
+                case COMMENT_COUNT, LAST_COMMENT_AT -> {
+                    comments = comments != null ? comments : task.join("comments", JoinType.LEFT);
+                    yield field == TaskField.COMMENT_COUNT
+                            ? cb.count(comments.get("id"))
+                            : cb.<LocalDateTime>greatest(comments.get("timestamp"));
+                }
+                case COMMENTS -> throw new IllegalArgumentException("Comments are not a task column");
+            };
+            if (!field.isAggregate()) {
+                columns.add(column);
+            }
+            selections.add(column.alias(field.getJsonName()));
+        }
+        query.multiselect(selections);
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(task, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (comments != null) {
+            query.groupBy(columns);
+        }
+
+        List<Order> orders = new ArrayList<>();
+        if (sort != TaskSort.ID) {
+            Expression<Integer> rank = rank(cb, task, sort);
+            orders.add(direction.isAscending() ? cb.asc(rank) : cb.desc(rank));
+        }
+        orders.add(direction.isAscending() ? cb.asc(task.get("taskId")) : cb.desc(task.get("taskId")));
+        query.orderBy(orders);
+        return query;
+    }
+
+    private static List<Map<String, Object>> toRows(List<Tuple> tuples, Set<TaskField> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TaskField field : fields) {
+                row.put(field.getJsonName(), tuple.get(field.getJsonName()));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private TypedQuery<TaskSummaryResponse> pagedQuery(Specification<TaskEntity> spec, Pageable pageable, int lookahead) {
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc(TaskSort.ID.name()));
+        TaskSort sort = TaskSort.valueOf(order.getProperty());
+        TypedQuery<TaskSummaryResponse> query = entityManager.createQuery(
+                summaryQuery(spec, sort, order.getDirection(), null));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize() + lookahead);
+        }
+        return query;
+    }
+
+    private CriteriaQuery<TaskSummaryResponse> summaryQuery(Specification<TaskEntity> spec, TaskSort sort,
+                                                            Sort.Direction direction, TaskCursor after) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskSummaryResponse> query = cb.createQuery(TaskSummaryResponse.class);
+        Root<TaskEntity> task = query.from(TaskEntity.class);
+        Join<TaskEntity, UserEntity> author = task.join("author");
+        Join<TaskEntity, UserEntity> executor = task.join("executor");
+        Join<TaskEntity, CommentEntity> comments = task.join("comments", JoinType.LEFT);
+
+        List<Expression<?>> columns = List.of(
+                task.get("taskId"),
+                task.get("taskTitle"),
+                task.get("taskDescription"),
+                task.get("priority"),
+                task.get("taskStatus"),
+                author.get("name"),
+                author.get("email"),
+                executor.get("name"),
+                executor.get("email")
+        );
+        List<Selection<?>> selections = new ArrayList<>(columns);
+        selections.add(cb.count(comments.get("id")));
+        selections.add(cb.<LocalDateTime>greatest(comments.get("timestamp")));
+
+        query.select(cb.construct(TaskSummaryResponse.class, selections.toArray(Selection[]::new)));
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate predicate = spec == null ? null : spec.toPredicate(task, query, cb);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        Expression<Integer> rank = sort == TaskSort.ID ? null : rank(cb, task, sort);
+        if (after != null) {
+            predicates.add(after(cb, task.get("taskId"), rank, direction, after));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.groupBy(columns);
+
+        List<Order> orders = new ArrayList<>();
+        if (rank != null) {
+            orders.add(direction.isAscending() ? cb.asc(rank) : cb.desc(rank));
+        }
+        orders.add(direction.isAscending() ? cb.asc(task.get("taskId")) : cb.desc(task.get("taskId")));
+        query.orderBy(orders);
+        return query;
+    }
+
+    /**
+     * Maps an enum attribute to its declaration order, so that e.g. priorities sort as
+     * HIGH, MEDIUM, LOW rather than alphabetically by their stored names.
+     * <p>
+     * No index covers this CASE expression. A keyset page sorted by PRIORITY or STATUS
+     * therefore still reads and sorts every filtered row past the cursor; it only saves
+     * the OFFSET skip. Only sort=ID pages are an index range scan.
+     */
+    private Expression<Integer> rank(CriteriaBuilder cb, Root<TaskEntity> task, TaskSort sort) {
+        Path<Object> attribute = task.get(sort.getAttribute());
+        Object[] values = attribute.getJavaType().getEnumConstants();
+        CriteriaBuilder.SimpleCase<Object, Integer> rank = cb.selectCase(attribute);
+        for (int i = 0; i < values.length - 1; i++) {
+            rank.when(values[i], i);
+        }
+        return rank.otherwise(values.length - 1);
+    }
+
+    private Predicate after(CriteriaBuilder cb, Path<Long> taskId, Expression<Integer> rank,
+                            Sort.Direction direction, TaskCursor cursor) {
+        Predicate idAfter = direction.isAscending()
+                ? cb.greaterThan(taskId, cursor.getTaskId())
+                : cb.lessThan(taskId, cursor.getTaskId());
+        if (rank == null) {
+            return idAfter;
+        }
+        Predicate rankAfter = direction.isAscending()
+                ? cb.greaterThan(rank, cursor.getRank())
+                : cb.lessThan(rank, cursor.getRank());
+        return cb.or(rankAfter, cb.and(cb.equal(rank, cursor.getRank()), idAfter));
+    }
+
+    private long count(Specification<TaskEntity> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<TaskEntity> task = query.from(TaskEntity.class);
+        query.select(cb.count(task));
+        Predicate predicate = spec == null ? null : spec.toPredicate(task, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
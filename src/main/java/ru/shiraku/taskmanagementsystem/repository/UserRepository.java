@@ -1,14 +1,34 @@
 package ru.shiraku.taskmanagementsystem.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.shiraku.taskmanagementsystem.model.dto.UserResponse;
 import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
     boolean existsByEmail(String email);
+
+    /**
+     * Cacheable so that, with the entity cache on, repeated lookups of the same email are
+     * answered from the query cache and the users region without SQL.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UserEntity> findByEmail(String email);
+
+    @Query("select new ru.shiraku.taskmanagementsystem.model.dto.UserResponse(u.name, u.lastName, u.email, u.role) "
+            + "from UserEntity u order by u.email")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UserResponse> streamAll();
 }
@@ -0,0 +1,131 @@
+package ru.shiraku.taskmanagementsystem.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.shiraku.taskmanagementsystem.model.ExportFormat;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskSummaryResponse;
+import ru.shiraku.taskmanagementsystem.model.dto.UserResponse;
+import ru.shiraku.taskmanagementsystem.repository.TaskRepository;
+import ru.shiraku.taskmanagementsystem.repository.UserRepository;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes tasks and users row by row while they are read from a forward-only database
+ * cursor, so memory use does not depend on the number of exported rows.
+ */
+@Service
+public class ExportService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private static final List<Column<TaskSummaryResponse>> TASK_COLUMNS = List.of(
+            new Column<>("taskId", TaskSummaryResponse::getTaskId),
+            new Column<>("taskTitle", TaskSummaryResponse::getTaskTitle),
+            new Column<>("taskDescription", TaskSummaryResponse::getTaskDescription),
+            new Column<>("priority", TaskSummaryResponse::getPriority),
+            new Column<>("taskStatus", TaskSummaryResponse::getTaskStatus),
+            new Column<>("author", TaskSummaryResponse::getAuthor),
+            new Column<>("authorEmail", TaskSummaryResponse::getAuthorEmail),
+            new Column<>("executor", TaskSummaryResponse::getExecutor),
+            new Column<>("executorEmail", TaskSummaryResponse::getExecutorEmail),
+            new Column<>("commentCount", TaskSummaryResponse::getCommentCount),
+            new Column<>("lastCommentAt", TaskSummaryResponse::getLastCommentAt)
+    );
+
+    private static final List<Column<UserResponse>> USER_COLUMNS = List.of(
+            new Column<>("name", UserResponse::getName),
+            new Column<>("lastName", UserResponse::getLastName),
+            new Column<>("email", UserResponse::getEmail),
+            new Column<>("role", UserResponse::getRole)
+    );
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(TaskRepository taskRepository, UserRepository userRepository, ObjectMapper objectMapper) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportTasks(OutputStream out, ExportFormat format) throws IOException {
+        try (Stream<TaskSummaryResponse> tasks = taskRepository.streamSummaries()) {
+            write(tasks.iterator(), out, format, TASK_COLUMNS);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream out, ExportFormat format) throws IOException {
+        try (Stream<UserResponse> users = userRepository.streamAll()) {
+            write(users.iterator(), out, format, USER_COLUMNS);
+        }
+    }
+
+    private <T> void write(Iterator<T> rows, OutputStream out, ExportFormat format, List<Column<T>> columns)
+            throws IOException {
+        switch (format) {
+            case NDJSON -> writeNdjson(rows, out);
+            case CSV -> writeCsv(rows, out, columns);
+        }
+    }
+
+    private <T> void writeNdjson(Iterator<T> rows, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        generator.setRootValueSeparator(null);
+        int written = 0;
+        while (rows.hasNext()) {
+            generator.writeObject(rows.next());
+            generator.writeRaw('\n');
+            if (++written % FLUSH_EVERY == 0) {
+                generator.flush();
+            }
+        }
+        generator.close();
+    }
+
+    private <T> void writeCsv(Iterator<T> rows, OutputStream out, List<Column<T>> columns) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", columns.stream().map(Column::header).toList()));
+        writer.write("\r\n");
+        int written = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvValue(columns.get(i).value().apply(row)));
+            }
+            writer.write("\r\n");
+            if (++written % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private record Column<T>(String header, Function<T, Object> value) {
+    }
+}
@@ -0,0 +1,195 @@
+package ru.shiraku.taskmanagementsystem.service;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.shiraku.taskmanagementsystem.event.TaskChangeEvent;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Status;
+import ru.shiraku.taskmanagementsystem.model.TaskFilter;
+import ru.shiraku.taskmanagementsystem.model.TaskSnapshot;
+import ru.shiraku.taskmanagementsystem.repository.TaskRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Compressed bitmaps of task ids per status, priority, author and executor, so that
+ * filters and counts are answered from memory. The index is filled from the database
+ * once the application is ready and then follows committed {@link TaskChangeEvent}s.
+ * <p>
+ * After-commit listeners of concurrent transactions may run out of commit order, so an
+ * event only says which entries to drop: the task is re-added from its row as committed,
+ * read under the write lock. Any state added that way is the {@code before} of the next
+ * change to the task, whose listener runs after that commit and removes it again.
+ * <p>
+ * Readers never wait: while the index is rebuilding, or if a task id does not fit into
+ * an int, {@link #match} returns empty and callers fall back to the database.
+ */
+@Component
+@ConditionalOnProperty(name = "task.index.enabled", havingValue = "true")
+public class TaskBitmapIndex {
+    private static final Logger log = LoggerFactory.getLogger(TaskBitmapIndex.class);
+
+    private final TaskRepository taskRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Status, RoaringBitmap> byStatus = new EnumMap<>(Status.class);
+    private final Map<Priority, RoaringBitmap> byPriority = new EnumMap<>(Priority.class);
+    private final Map<UUID, RoaringBitmap> byAuthor = new HashMap<>();
+    private final Map<UUID, RoaringBitmap> byExecutor = new HashMap<>();
+    private volatile boolean ready;
+
+    public TaskBitmapIndex(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            all.clear();
+            byStatus.clear();
+            byPriority.clear();
+            byAuthor.clear();
+            byExecutor.clear();
+            long started = System.nanoTime();
+            try (Stream<TaskSnapshot> tasks = taskRepository.streamSnapshots()) {
+                ready = tasks.allMatch(this::add);
+            }
+            if (ready) {
+                log.info("Task index built for {} tasks in {} ms", all.getLongCardinality(),
+                        (System.nanoTime() - started) / 1_000_000);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChange(TaskChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getBefore() != null) {
+                remove(event.getBefore());
+            }
+            if (event.getAfter() != null) {
+                remove(event.getAfter());
+            }
+            // joins the committed transaction, so this reads the primary rather than a replica
+            taskRepository.findSnapshot(event.getTaskId()).ifPresent(committed -> {
+                if (!add(committed)) {
+                    ready = false;
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return ids of the matching tasks, or empty if the index cannot answer right now
+     */
+    public Optional<RoaringBitmap> match(TaskFilter filter) {
+        if (!ready || !lock.readLock().tryLock()) {
+            return Optional.empty();
+        }
+        try {
+            if (!ready) {
+                return Optional.empty();
+            }
+            List<RoaringBitmap> constraints = new ArrayList<>(4);
+            addUnion(constraints, byStatus, filter.getStatuses());
+            addUnion(constraints, byPriority, filter.getPriorities());
+            addUnion(constraints, byAuthor, filter.getAuthorIds());
+            addUnion(constraints, byExecutor, filter.getExecutorIds());
+            if (constraints.isEmpty()) {
+                return Optional.of(all.clone());
+            }
+            // intersect starting from the most selective attribute
+            constraints.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+            RoaringBitmap result = constraints.get(0).clone();
+            for (int i = 1; i < constraints.size() && !result.isEmpty(); i++) {
+                result.and(constraints.get(i));
+            }
+            return Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds the union of the bitmaps for the given keys. A single key contributes its
+     * bitmap as is, so callers must not modify what ends up in {@code constraints}.
+     */
+    private static <K> void addUnion(List<RoaringBitmap> constraints, Map<K, RoaringBitmap> bitmaps, Set<K> keys) {
+        if (keys == null) {
+            return;
+        }
+        List<RoaringBitmap> matching = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            RoaringBitmap bitmap = bitmaps.get(key);
+            if (bitmap != null) {
+                matching.add(bitmap);
+            }
+        }
+        if (matching.isEmpty()) {
+            constraints.add(new RoaringBitmap());
+        } else if (matching.size() == 1) {
+            constraints.add(matching.get(0));
+        } else {
+            constraints.add(FastAggregation.or(matching.iterator()));
+        }
+    }
+
+    private boolean add(TaskSnapshot task) {
+        if (task.getTaskId() > Integer.MAX_VALUE) {
+            log.warn("Task id {} does not fit the bitmap index, falling back to the database", task.getTaskId());
+            return false;
+        }
+        int id = task.getTaskId().intValue();
+        all.add(id);
+        byStatus.computeIfAbsent(task.getStatus(), key -> new RoaringBitmap()).add(id);
+        byPriority.computeIfAbsent(task.getPriority(), key -> new RoaringBitmap()).add(id);
+        byAuthor.computeIfAbsent(task.getAuthorId(), key -> new RoaringBitmap()).add(id);
+        byExecutor.computeIfAbsent(task.getExecutorId(), key -> new RoaringBitmap()).add(id);
+        return true;
+    }
+
+    private void remove(TaskSnapshot task) {
+        if (task.getTaskId() > Integer.MAX_VALUE) {
+            return;
+        }
+        int id = task.getTaskId().intValue();
+        all.remove(id);
+        removeFrom(byStatus, task.getStatus(), id);
+        removeFrom(byPriority, task.getPriority(), id);
+        removeFrom(byAuthor, task.getAuthorId(), id);
+        removeFrom(byExecutor, task.getExecutorId(), id);
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+}
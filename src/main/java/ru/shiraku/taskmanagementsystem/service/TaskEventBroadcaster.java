@@ -0,0 +1,328 @@
+package ru.shiraku.taskmanagementsystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.shiraku.taskmanagementsystem.event.CommentAddedEvent;
+import ru.shiraku.taskmanagementsystem.event.TaskChangeEvent;
+import ru.shiraku.taskmanagementsystem.exceptions.EventStreamClosedException;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+import ru.shiraku.taskmanagementsystem.model.TaskEventType;
+import ru.shiraku.taskmanagementsystem.model.TaskSnapshot;
+import ru.shiraku.taskmanagementsystem.model.dto.CommentResponse;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskEventResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed task changes to Server-Sent Events subscribers: a user receives the
+ * changes of tasks they execute (before or after the change), an admin receives all.
+ * <p>
+ * Idle connections hold no thread. Publishing only appends to each recipient's bounded
+ * queue; sender threads write the queues out, each draining one subscriber, so a client
+ * that stops reading blocks only its own write. A subscriber whose queue overflows, or
+ * whose write has been blocked for longer than {@code task.events.send-timeout}, is
+ * disconnected, and so is one that finds every sender thread busy. Disconnected streams are
+ * completed with an error; the client is expected to reconnect and reload the tasks it shows.
+ */
+@Component
+public class TaskEventBroadcaster {
+    private static final String EVENT_NAME = "task";
+
+    private final Map<UUID, Set<Subscriber>> executors = new ConcurrentHashMap<>();
+    private final Set<Subscriber> admins = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService sender;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final Counter dropped;
+
+    public TaskEventBroadcaster(MeterRegistry meterRegistry,
+                                @Value("${task.events.threads:2}") int threads,
+                                @Value("${task.events.max-threads:64}") int maxThreads,
+                                @Value("${task.events.buffer-size:256}") int bufferSize,
+                                @Value("${spring.mvc.async.request-timeout:30m}") Duration timeout,
+                                @Value("${task.events.send-timeout:10s}") Duration sendTimeout) {
+        // no queue: a drain never waits behind another subscriber's blocked write
+        this.sender = new ThreadPoolExecutor(threads, Math.max(threads, maxThreads), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new SenderThreadFactory());
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        Gauge.builder("task.events.subscribers", subscribers, AtomicInteger::get)
+                .description("Open task event streams")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("task.events.dropped")
+                .description("Task event streams closed because the client or the senders did not keep up")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(AuthenticatedUser user) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(user.getId(), user.isAdmin(), emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        if (subscriber.admin) {
+            admins.add(subscriber);
+        } else {
+            executors.compute(subscriber.userId, (id, set) -> {
+                Set<Subscriber> subscribed = set != null ? set : ConcurrentHashMap.newKeySet();
+                subscribed.add(subscriber);
+                return subscribed;
+            });
+        }
+        subscribers.incrementAndGet();
+        // sends the response headers right away
+        subscriber.offer(Message.comment("connected"));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChange(TaskChangeEvent event) {
+        TaskSnapshot before = event.getBefore();
+        TaskSnapshot after = event.getAfter();
+        TaskEventType type = typeOf(before, after);
+        if (type == null) {
+            return;
+        }
+        TaskEventResponse payload = after == null
+                ? new TaskEventResponse(type, event.getTaskId(), null, null, null)
+                : new TaskEventResponse(type, event.getTaskId(), after.getStatus(), after.getPriority(), null);
+        Set<UUID> recipients = new HashSet<>(2);
+        if (before != null) {
+            recipients.add(before.getExecutorId());
+        }
+        if (after != null) {
+            recipients.add(after.getExecutorId());
+        }
+        publish(recipients, payload);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommentAdded(CommentAddedEvent event) {
+        for (CommentResponse comment : event.getComments()) {
+            publish(Set.of(event.getExecutorId()),
+                    new TaskEventResponse(TaskEventType.COMMENT_ADDED, event.getTaskId(), null, null, comment));
+        }
+    }
+
+    /**
+     * Keeps proxies from closing idle streams, finds clients that went away without closing
+     * and disconnects those that stopped reading.
+     */
+    @Scheduled(fixedRateString = "${task.events.heartbeat:15s}")
+    public void heartbeat() {
+        Message heartbeat = Message.comment("heartbeat");
+        long now = System.nanoTime();
+        admins.forEach(subscriber -> subscriber.beat(heartbeat, now));
+        executors.values().forEach(set -> set.forEach(subscriber -> subscriber.beat(heartbeat, now)));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        admins.forEach(subscriber -> subscriber.emitter.complete());
+        executors.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdown();
+    }
+
+    private void publish(Set<UUID> recipients, TaskEventResponse payload) {
+        Message message = Message.event(sequence.incrementAndGet(), payload);
+        for (UUID recipient : recipients) {
+            Set<Subscriber> set = executors.get(recipient);
+            if (set != null) {
+                set.forEach(subscriber -> subscriber.offer(message));
+            }
+        }
+        admins.forEach(subscriber -> subscriber.offer(message));
+    }
+
+    private static TaskEventType typeOf(TaskSnapshot before, TaskSnapshot after) {
+        if (before == null) {
+            return TaskEventType.CREATED;
+        }
+        if (after == null) {
+            return TaskEventType.DELETED;
+        }
+        if (!before.getExecutorId().equals(after.getExecutorId())) {
+            return TaskEventType.EXECUTOR_CHANGED;
+        }
+        if (before.getStatus() != after.getStatus()) {
+            return TaskEventType.STATUS_CHANGED;
+        }
+        if (before.getPriority() != after.getPriority()) {
+            return TaskEventType.PRIORITY_CHANGED;
+        }
+        return null;
+    }
+
+    private final class Subscriber implements Runnable {
+        private final UUID userId;
+        private final boolean admin;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean failed = new AtomicBoolean();
+        private volatile boolean dropping;
+        private volatile boolean sending;
+        private volatile long sendStarted;
+
+        private Subscriber(UUID userId, boolean admin, SseEmitter emitter) {
+            this.userId = userId;
+            this.admin = admin;
+            this.emitter = emitter;
+        }
+
+        private void offer(Message message) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                drop();
+                return;
+            }
+            schedule();
+        }
+
+        private void beat(Message heartbeat, long now) {
+            if (sending && now - sendStarted > sendTimeoutNanos) {
+                drop();
+            } else {
+                offer(heartbeat);
+            }
+        }
+
+        private void drop() {
+            dropped.increment();
+            close();
+            dropping = true;
+            // completing flushes the response, which waits until a blocked write gives up
+            try {
+                sender.execute(this::fail);
+            } catch (RejectedExecutionException e) {
+                // every sender is busy: nothing holds this response unless its own write is
+                // stuck, and then its sender fails it once the write returns
+                if (!sending) {
+                    fail();
+                }
+            }
+        }
+
+        private void fail() {
+            if (failed.compareAndSet(false, true)) {
+                emitter.completeWithError(new EventStreamClosedException("Task event stream dropped"));
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    drop();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Message message;
+                while (!closed.get() && (message = queue.poll()) != null) {
+                    sendStarted = System.nanoTime();
+                    sending = true;
+                    emitter.send(message.toEvent());
+                    sending = false;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client went away or the stream has already completed
+                close();
+            } finally {
+                sending = false;
+                scheduled.set(false);
+            }
+            if (dropping) {
+                fail();
+                return;
+            }
+            if (!closed.get() && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            queue.clear();
+            subscribers.decrementAndGet();
+            if (admin) {
+                admins.remove(this);
+            } else {
+                executors.computeIfPresent(userId, (id, set) -> {
+                    set.remove(this);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        }
+    }
+
+    private static final class Message {
+        private final String id;
+        private final Object data;
+        private final String comment;
+
+        private Message(String id, Object data, String comment) {
+            this.id = id;
+            this.data = data;
+            this.comment = comment;
+        }
+
+        static Message event(long id, Object data) {
+            return new Message(Long.toString(id), data, null);
+        }
+
+        static Message comment(String comment) {
+            return new Message(null, null, comment);
+        }
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (comment != null) {
+                return SseEmitter.event().comment(comment);
+            }
+            return SseEmitter.event().id(id).name(EVENT_NAME).data(data);
+        }
+    }
+
+    private static class SenderThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "task-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,47 +1,88 @@
 package ru.shiraku.taskmanagementsystem.service;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.shiraku.taskmanagementsystem.event.CommentAddedEvent;
+import ru.shiraku.taskmanagementsystem.event.TaskChangeEvent;
 import ru.shiraku.taskmanagementsystem.exceptions.AccessClosed;
 import ru.shiraku.taskmanagementsystem.exceptions.InvalidCommentException;
+import ru.shiraku.taskmanagementsystem.exceptions.InvalidCursorException;
+import ru.shiraku.taskmanagementsystem.exceptions.InvalidFieldsException;
 import ru.shiraku.taskmanagementsystem.exceptions.NotFound;
+import ru.shiraku.taskmanagementsystem.exceptions.PreconditionFailedException;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+import ru.shiraku.taskmanagementsystem.model.CommentCursor;
 import ru.shiraku.taskmanagementsystem.model.Priority;
-import ru.shiraku.taskmanagementsystem.model.Role;
 import ru.shiraku.taskmanagementsystem.model.Status;
+import ru.shiraku.taskmanagementsystem.model.TaskCursor;
+import ru.shiraku.taskmanagementsystem.model.TaskField;
+import ru.shiraku.taskmanagementsystem.model.TaskFilter;
+import ru.shiraku.taskmanagementsystem.model.TaskSnapshot;
+import ru.shiraku.taskmanagementsystem.model.TaskSort;
+import ru.shiraku.taskmanagementsystem.model.TaskVersion;
+import ru.shiraku.taskmanagementsystem.model.dto.CommentPage;
 import ru.shiraku.taskmanagementsystem.model.dto.CommentResponse;
 import ru.shiraku.taskmanagementsystem.model.dto.CreateTaskRequest;
 import ru.shiraku.taskmanagementsystem.model.dto.EditTaskRequest;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskCursorPage;
 import ru.shiraku.taskmanagementsystem.model.dto.TaskResponse;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskSummaryResponse;
 import ru.shiraku.taskmanagementsystem.model.entity.CommentEntity;
 import ru.shiraku.taskmanagementsystem.model.entity.TaskEntity;
 import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
+import ru.shiraku.taskmanagementsystem.repository.CommentRepository;
 import ru.shiraku.taskmanagementsystem.repository.TaskRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.calls")
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
     private final UserService userService;
+    private final ApplicationEventPublisher events;
+    private final ObjectProvider<TaskBitmapIndex> index;
+    private final boolean entityCacheEnabled;
 
-    public TaskService(TaskRepository taskRepository, UserService userService) {
+    public TaskService(TaskRepository taskRepository, CommentRepository commentRepository, UserService userService,
+                       ApplicationEventPublisher events, ObjectProvider<TaskBitmapIndex> index,
+                       @Value("${entity-cache.enabled:false}") boolean entityCacheEnabled) {
         this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
         this.userService = userService;
+        this.events = events;
+        this.index = index;
+        this.entityCacheEnabled = entityCacheEnabled;
     }
 
 
     @Transactional
-    public TaskEntity createTask(String authorEmail, CreateTaskRequest request) {
-        UserEntity author = userService.findByEmail(authorEmail);
+    public TaskResponse createTask(AuthenticatedUser author, CreateTaskRequest request) {
         UserEntity executor = userService.findByEmail(request.getExecutorEmail());
 
         TaskEntity task = new TaskEntity();
@@ -49,128 +90,367 @@ public class TaskService {
         task.setTaskDescription(request.getTaskDescription());
         task.setPriority(request.getPriority());
         task.setTaskStatus(Status.TODO);
-        task.setAuthor(author.getName());
-        task.setAuthorEmail(author.getEmail());
-        task.setExecutor(executor.getName());
-        task.setExecutorEmail(executor.getEmail());
+        task.setAuthor(userService.getReference(author.getId()));
+        task.setExecutor(userService.getReference(executor.getId()));
 
-        return taskRepository.save(task);
+        TaskEntity saved = taskRepository.save(task);
+        events.publishEvent(new TaskChangeEvent(null, TaskSnapshot.of(saved)));
+        return createTaskResponse(saved);
     }
 
     @Transactional
-    public TaskResponse editTask(Long taskId, EditTaskRequest request){
+    public TaskResponse editTask(Long taskId, EditTaskRequest request, Set<Long> expectedVersions){
         Optional<TaskEntity> taskOpt = taskRepository.findById(taskId);
         if(taskOpt.isEmpty()) {
             throw new NotFound("Task not found");
         }
         TaskEntity task = taskOpt.get();
+        checkVersion(task, expectedVersions);
         if (request.getTaskTitle() != null) {
             task.setTaskTitle(request.getTaskTitle());
         }
         if (request.getTaskDescription() != null) {
             task.setTaskDescription(request.getTaskDescription());
         }
-        taskRepository.save(task);
+        taskRepository.saveAndFlush(task);
         return createTaskResponse(task);
     }
 
-    public TaskResponse getTask(Long taskId, String emailExecutor) {
+    @Transactional(readOnly = true)
+    public TaskResponse getTask(Long taskId, AuthenticatedUser caller) {
         Optional<TaskEntity> task = taskRepository.findById(taskId);
         if (task.isEmpty()) {
             throw new NotFound("Task not found.");
         }
-        if(task.get().getExecutorEmail().equals(emailExecutor)) {
+        if (task.get().getExecutor().getId().equals(caller.getId()) || caller.isAdmin()) {
             return createTaskResponse(task.get());
         }
-        UserEntity admin = userService.findByEmail(emailExecutor);
-        if(admin.getRole() == Role.ADMIN) {
-            return createTaskResponse(task.get());
+        throw new AccessClosed("You don't have access to this task.");
+    }
+
+    /**
+     * Checks access and returns the current version without loading the task, so that
+     * a conditional GET of an unchanged task costs one indexed lookup.
+     */
+    @Transactional(readOnly = true)
+    public long getTaskVersion(Long taskId, AuthenticatedUser caller) {
+        TaskVersion task = taskRepository.findVersion(taskId)
+                .orElseThrow(() -> new NotFound("Task not found."));
+        if (task.getExecutorId().equals(caller.getId()) || caller.isAdmin()) {
+            return task.getVersion();
         }
         throw new AccessClosed("You don't have access to this task.");
     }
 
-    public List<TaskResponse> getAllTasks() {
-        return taskRepository.findAll()
-                .stream()
-                .map(this::createTaskResponse)
-                .collect(Collectors.toList());
+    /**
+     * Loads only the requested fields of one task, always with its version for the ETag.
+     * Access is part of the query, so a visible task costs one lookup; comments, when asked
+     * for, come from a separate query rather than through the task's collection.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTaskFields(Long taskId, Set<TaskField> fields, AuthenticatedUser caller) {
+        Set<TaskField> columns = EnumSet.copyOf(fields);
+        columns.remove(TaskField.COMMENTS);
+        columns.add(TaskField.VERSION);
+        Specification<TaskEntity> spec = (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("taskId"), taskId);
+        if (!caller.isAdmin()) {
+            spec = spec.and((root, query, criteriaBuilder) ->
+                    criteriaBuilder.equal(root.get("executor").get("id"), caller.getId()));
+        }
+        List<Map<String, Object>> rows = taskRepository.findFields(spec, columns);
+        if (rows.isEmpty()) {
+            // tells a missing task from a foreign one
+            getTaskVersion(taskId, caller);
+            throw new NotFound("Task not found.");
+        }
+        Map<String, Object> task = rows.get(0);
+        if (fields.contains(TaskField.COMMENTS)) {
+            task.put(TaskField.COMMENTS.getJsonName(), commentRepository.findAllByTask(taskId));
+        }
+        return task;
+    }
+
+    /**
+     * Rejects the change if the client edited an older version than the stored one.
+     * Changes that race after this check fail on flush with an optimistic lock error.
+     */
+    private void checkVersion(TaskEntity task, Set<Long> expectedVersions) {
+        if (expectedVersions != null && !expectedVersions.contains(task.getVersion())) {
+            throw new PreconditionFailedException("Task has been modified, reload it and retry.");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskSummaryResponse> getAllTasks() {
+        return taskRepository.findSummaries(null);
     }
 
-    public List<TaskResponse> getTasksByExecutor(String executorEmail) {
-        Optional<List<TaskEntity>> tasksOpt = taskRepository.findAllByExecutorEmail(executorEmail);
-        return tasksOpt.map(taskEntities -> taskEntities
-                .stream()
-                .map(this::createTaskResponse)
-                .collect(Collectors.toList())).orElseGet(ArrayList::new);
+    @Transactional(readOnly = true)
+    public List<TaskSummaryResponse> getTasksByExecutor(String executorEmail) {
+        return taskRepository.findSummaries(buildSpecification(null, executorEmail, null, null));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTasksByExecutor(String executorEmail, Set<TaskField> fields) {
+        return taskRepository.findFields(buildSpecification(null, executorEmail, null, null), listFields(fields));
     }
 
     @Transactional
     public void deleteTask(Long taskId) {
-        taskRepository.deleteById(taskId);
+        taskRepository.findById(taskId).ifPresent(task -> {
+            TaskSnapshot before = TaskSnapshot.of(task);
+            taskRepository.delete(task);
+            events.publishEvent(new TaskChangeEvent(before, null));
+        });
     }
 
     @Transactional
-    public TaskResponse updatePriority(Long taskId, Priority priority) {
+    public TaskResponse updatePriority(Long taskId, Priority priority, Set<Long> expectedVersions) {
         TaskEntity task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new NotFound("Task with ID " + taskId + " not found"));
+        checkVersion(task, expectedVersions);
+        TaskSnapshot before = TaskSnapshot.of(task);
         task.setPriority(priority);
-        taskRepository.save(task);
+        taskRepository.saveAndFlush(task);
+        events.publishEvent(new TaskChangeEvent(before, TaskSnapshot.of(task)));
         return createTaskResponse(task);
     }
 
     @Transactional
-    public TaskResponse updateStatus(Long taskId, Status status) {
+    public TaskResponse updateStatus(Long taskId, Status status, Set<Long> expectedVersions) {
         TaskEntity task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new NotFound("Task with ID " + taskId + " not found"));
+        checkVersion(task, expectedVersions);
+        TaskSnapshot before = TaskSnapshot.of(task);
         task.setTaskStatus(status);
-        taskRepository.save(task);
+        taskRepository.saveAndFlush(task);
+        events.publishEvent(new TaskChangeEvent(before, TaskSnapshot.of(task)));
         return createTaskResponse(task);
     }
 
     @Transactional
-    public TaskResponse updateExecutor(Long taskId, String executorEmail) {
+    public TaskResponse updateExecutor(Long taskId, String executorEmail, Set<Long> expectedVersions) {
         TaskEntity task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new NotFound("Task with ID " + taskId + " not found"));
+        checkVersion(task, expectedVersions);
         UserEntity executor = userService.findByEmail(executorEmail);
-        task.setExecutor(executor.getName());
-        task.setExecutorEmail(executor.getEmail());
-        taskRepository.save(task);
+        TaskSnapshot before = TaskSnapshot.of(task);
+        task.setExecutor(userService.getReference(executor.getId()));
+        taskRepository.saveAndFlush(task);
+        events.publishEvent(new TaskChangeEvent(before, TaskSnapshot.of(task)));
         return createTaskResponse(task);
     }
 
     @Transactional
-    public TaskResponse addComment(Long taskId, String authorEmail ,String message) {
+    public TaskResponse addComment(Long taskId, AuthenticatedUser author, String message) {
         if (message == null || message.trim().isEmpty()) {
             throw new InvalidCommentException("Comment cannot be empty.");
         }
+        incrementVersion(taskId);
         TaskEntity task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new NotFound("Task with ID " + taskId + " not found"));
-        UserEntity author = userService.findByEmail(authorEmail);
         CommentEntity comment = new CommentEntity();
-        comment.setAuthor(author);
+        comment.setAuthor(userService.getReference(author.getId()));
         comment.setContent(message);
         comment.setTask(task);
         comment.setTimestamp(LocalDateTime.now());
-        task.getComments().add(comment);
-        taskRepository.save(task);
-        return createTaskResponse(task);
+        // saved on its own and listed with one projection, so the task's comment collection is never loaded
+        commentRepository.save(comment);
+        CommentResponse added = new CommentResponse(comment.getId(), comment.getContent(), author.getEmail(),
+                comment.getTimestamp());
+        events.publishEvent(new CommentAddedEvent(taskId, task.getExecutor().getId(), List.of(added)));
+        return createTaskResponse(task, commentRepository.findAllByTask(taskId));
     }
 
-    public Page<TaskResponse> getTasks(String authorEmail, String executorEmail, String status, String priority, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
+    @Transactional(readOnly = true)
+    public Page<TaskSummaryResponse> getTasks(String authorEmail, String executorEmail, String status, String priority,
+                                              TaskSort sort, Sort.Direction direction, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort.name()));
+        if (sort == TaskSort.ID) {
+            Optional<RoaringBitmap> ids = matchIndex(single(authorEmail), single(executorEmail),
+                    status == null ? null : Set.of(Status.valueOf(status)),
+                    priority == null ? null : Set.of(Priority.valueOf(priority)));
+            if (ids.isPresent()) {
+                return pageByIds(ids.get(), direction, pageable);
+            }
+        }
+        Specification<TaskEntity> spec = buildSpecification(authorEmail, executorEmail, status, priority);
+        return taskRepository.findSummaries(spec, pageable);
+    }
+
+    /**
+     * Same page as {@link #getTasks(String, String, String, String, TaskSort, Sort.Direction, int, int)},
+     * with only the requested fields selected.
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getTasks(String authorEmail, String executorEmail, String status, String priority,
+                                              TaskSort sort, Sort.Direction direction, int page, int size,
+                                              Set<TaskField> fields) {
+        Set<TaskField> columns = listFields(fields);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort.name()));
+        if (sort == TaskSort.ID) {
+            Optional<RoaringBitmap> ids = matchIndex(single(authorEmail), single(executorEmail),
+                    status == null ? null : Set.of(Status.valueOf(status)),
+                    priority == null ? null : Set.of(Priority.valueOf(priority)));
+            if (ids.isPresent()) {
+                List<Long> pageIds = pageIds(ids.get(), direction, pageable);
+                List<Map<String, Object>> rows = pageIds.isEmpty() ? new ArrayList<>() : new ArrayList<>(
+                        taskRepository.findFields((root, query, criteriaBuilder) -> root.get("taskId").in(pageIds),
+                                columns));
+                if (!direction.isAscending()) {
+                    Collections.reverse(rows);
+                }
+                return new PageImpl<>(rows, pageable, ids.get().getLongCardinality());
+            }
+        }
+        Specification<TaskEntity> spec = buildSpecification(authorEmail, executorEmail, status, priority);
+        return taskRepository.findFields(spec, columns, pageable);
+    }
 
+    private static Set<TaskField> listFields(Set<TaskField> fields) {
+        if (fields.contains(TaskField.COMMENTS)) {
+            throw new InvalidFieldsException("Comments are only available for a single task");
+        }
+        return fields;
+    }
+
+    /**
+     * Counts tasks matching any of the given values per attribute, all attributes combined
+     * with AND. Answered from the in-memory index when it is enabled and built.
+     */
+    @Transactional(readOnly = true)
+    public long countTasks(Set<String> authorEmails, Set<String> executorEmails, Set<Status> statuses,
+                           Set<Priority> priorities) {
+        Optional<RoaringBitmap> ids = matchIndex(authorEmails, executorEmails, statuses, priorities);
+        if (ids.isPresent()) {
+            return ids.get().getLongCardinality();
+        }
+        Specification<TaskEntity> spec = Specification.where(null);
+        if (authorEmails != null) {
+            spec = spec.and(userIn("author", authorEmails));
+        }
+        if (executorEmails != null) {
+            spec = spec.and(userIn("executor", executorEmails));
+        }
+        if (statuses != null) {
+            spec = spec.and(valueIn("taskStatus", statuses));
+        }
+        if (priorities != null) {
+            spec = spec.and(valueIn("priority", priorities));
+        }
+        return taskRepository.count(spec);
+    }
+
+    private Optional<RoaringBitmap> matchIndex(Set<String> authorEmails, Set<String> executorEmails,
+                                               Set<Status> statuses, Set<Priority> priorities) {
+        TaskBitmapIndex taskIndex = index.getIfAvailable();
+        if (taskIndex == null || !taskIndex.isReady()) {
+            return Optional.empty();
+        }
+        return taskIndex.match(new TaskFilter(statuses, priorities, userIds(authorEmails), userIds(executorEmails)));
+    }
+
+    /**
+     * Picks the page's ids from the matching bitmap by rank and loads only those rows.
+     */
+    private Page<TaskSummaryResponse> pageByIds(RoaringBitmap ids, Sort.Direction direction, Pageable pageable) {
+        long total = ids.getLongCardinality();
+        List<Long> pageIds = pageIds(ids, direction, pageable);
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        List<TaskSummaryResponse> rows = new ArrayList<>(taskRepository.findSummaries(
+                (root, query, criteriaBuilder) -> root.get("taskId").in(pageIds)));
+        if (!direction.isAscending()) {
+            Collections.reverse(rows);
+        }
+        return new PageImpl<>(rows, pageable, total);
+    }
+
+    private static List<Long> pageIds(RoaringBitmap ids, Sort.Direction direction, Pageable pageable) {
+        long total = ids.getLongCardinality();
+        long from = pageable.getOffset();
+        long to = Math.min(total, from + pageable.getPageSize());
+        List<Long> pageIds = new ArrayList<>((int) Math.max(0, to - from));
+        for (long i = from; i < to; i++) {
+            long rank = direction.isAscending() ? i : total - 1 - i;
+            pageIds.add(Integer.toUnsignedLong(ids.select((int) rank)));
+        }
+        return pageIds;
+    }
+
+    private static Set<String> single(String value) {
+        return value == null ? null : Set.of(value);
+    }
+
+    private Set<UUID> userIds(Set<String> emails) {
+        if (emails == null) {
+            return null;
+        }
+        return emails.stream()
+                .map(this::userId)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toSet());
+    }
+
+    private Optional<UUID> userId(String email) {
+        try {
+            return Optional.of(userService.findByEmail(email).getId());
+        } catch (NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    private Specification<TaskEntity> userIn(String attribute, Set<String> emails) {
+        Set<UUID> ids = userIds(emails);
+        return (root, query, criteriaBuilder) -> ids.isEmpty()
+                ? criteriaBuilder.disjunction()
+                : root.get(attribute).get("id").in(ids);
+    }
+
+    private static Specification<TaskEntity> valueIn(String attribute, Collection<?> values) {
+        return (root, query, criteriaBuilder) -> values.isEmpty()
+                ? criteriaBuilder.disjunction()
+                : root.get(attribute).in(values);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<TaskSummaryResponse> getTaskSlice(String authorEmail, String executorEmail, String status, String priority,
+                                                   TaskSort sort, Sort.Direction direction, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort.name()));
+        Specification<TaskEntity> spec = buildSpecification(authorEmail, executorEmail, status, priority);
+        return taskRepository.findSummarySlice(spec, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskCursorPage getTasksAfter(String authorEmail, String executorEmail, String status, String priority,
+                                        TaskSort sort, Sort.Direction direction, String cursor, int size) {
+        TaskCursor after = null;
+        if (cursor != null) {
+            after = TaskCursor.decode(cursor);
+            if (after.getSort() != sort || after.getDirection() != direction) {
+                throw new InvalidCursorException("Cursor was issued for a different sort.");
+            }
+        }
+        Specification<TaskEntity> spec = buildSpecification(authorEmail, executorEmail, status, priority);
+        List<TaskSummaryResponse> rows = taskRepository.findSummariesAfter(spec, sort, direction, after, size + 1);
+        if (rows.size() <= size) {
+            return new TaskCursorPage(rows, null);
+        }
+        List<TaskSummaryResponse> content = rows.subList(0, size);
+        return new TaskCursorPage(content, TaskCursor.after(sort, direction, content.get(size - 1)).encode());
+    }
+
+    Specification<TaskEntity> buildSpecification(String authorEmail, String executorEmail, String status, String priority) {
         Specification<TaskEntity> spec = Specification.where(null);
 
         if (authorEmail != null) {
-            spec = spec.and((root, query, criteriaBuilder) ->
-                    criteriaBuilder.equal(root.get("authorEmail"), authorEmail)
-            );
+            spec = spec.and(userEquals("author", authorEmail));
         }
 
         if (executorEmail != null) {
-            spec = spec.and((root, query, criteriaBuilder) ->
-                    criteriaBuilder.equal(root.get("executorEmail"), executorEmail)
-            );
+            spec = spec.and(userEquals("executor", executorEmail));
         }
 
         if (status != null) {
@@ -185,36 +465,136 @@ public class TaskService {
             );
         }
 
-        Page<TaskEntity> taskPage = taskRepository.findAll(spec, pageable);
-        return taskPage.map(this::createTaskResponse);
+        return spec;
+    }
+
+    /**
+     * Resolves the email through the cached user lookup and compares the foreign key,
+     * so the filter needs neither a join nor a string comparison. An unknown email
+     * matches no tasks.
+     */
+    private Specification<TaskEntity> userEquals(String attribute, String email) {
+        Optional<UUID> userId = userId(email);
+        if (userId.isEmpty()) {
+            return (root, query, criteriaBuilder) -> criteriaBuilder.disjunction();
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get(attribute).get("id"), userId.get());
     }
 
 
-    public List<CommentResponse> getCommentsByTask(Long taskId) {
-        TaskEntity task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new NotFound("Task not found"));
-        return task.getComments().stream().map(this::toDto).toList();
+    /**
+     * Inserts comments by task reference without loading the task's existing comments.
+     * Ids come from a pooled sequence, so several comments go to the database as one JDBC batch.
+     */
+    @Transactional
+    public List<CommentResponse> appendComments(Long taskId, AuthenticatedUser author, List<String> messages) {
+        if (messages.stream().anyMatch(message -> message == null || message.trim().isEmpty())) {
+            throw new InvalidCommentException("Comment cannot be empty.");
+        }
+        UUID executorId = taskRepository.findExecutorId(taskId)
+                .orElseThrow(() -> new NotFound("Task with ID " + taskId + " not found"));
+        incrementVersion(taskId);
+        TaskEntity task = taskRepository.getReferenceById(taskId);
+        UserEntity user = userService.getReference(author.getId());
+        LocalDateTime now = LocalDateTime.now();
+        List<CommentEntity> comments = messages.stream().map(message -> {
+            CommentEntity comment = new CommentEntity();
+            comment.setAuthor(user);
+            comment.setContent(message);
+            comment.setTask(task);
+            comment.setTimestamp(now);
+            return comment;
+        }).toList();
+        commentRepository.saveAll(comments);
+        List<CommentResponse> added = comments.stream()
+                .map(comment -> new CommentResponse(comment.getId(), comment.getContent(), author.getEmail(),
+                        comment.getTimestamp()))
+                .toList();
+        events.publishEvent(new CommentAddedEvent(taskId, executorId, added));
+        return added;
     }
 
-    private TaskResponse createTaskResponse(TaskEntity task) {
-        List<CommentResponse> comments = task.getComments().stream()
+    /**
+     * Comments are the inverse side of the association and do not bump the task's version
+     * themselves. By default this is one update statement. With the entity cache on, that
+     * bulk update would drop the whole tasks region, so the task row is locked and
+     * incremented instead.
+     */
+    private void incrementVersion(Long taskId) {
+        if (entityCacheEnabled) {
+            taskRepository.lockAndIncrementVersion(taskId);
+        } else {
+            taskRepository.incrementVersion(taskId);
+        }
+    }
+
+    /**
+     * Returns one page of a task's comments, newest first. Without a cursor this is the latest
+     * page; {@code before} pages back to older comments and {@code after} fetches the ones
+     * posted since. Each page is a single index range scan regardless of thread length.
+     */
+    @Transactional(readOnly = true)
+    public CommentPage getCommentsByTask(Long taskId, String before, String after, int size) {
+        if (before != null && after != null) {
+            throw new InvalidCursorException("Use either before or after, not both.");
+        }
+        Limit limit = Limit.of(size + 1);
+        List<CommentResponse> rows;
+        boolean hasOlder;
+        if (after != null) {
+            CommentCursor cursor = CommentCursor.decode(after);
+            rows = new ArrayList<>(commentRepository.findNewer(taskId, cursor.getTimestamp(), cursor.getId(), limit));
+            if (rows.size() > size) {
+                rows = new ArrayList<>(rows.subList(0, size));
+            }
+            Collections.reverse(rows);
+            hasOlder = true;
+        } else {
+            if (before != null) {
+                CommentCursor cursor = CommentCursor.decode(before);
+                rows = commentRepository.findOlder(taskId, cursor.getTimestamp(), cursor.getId(), limit);
+            } else {
+                rows = commentRepository.findLatest(taskId, limit);
+            }
+            hasOlder = rows.size() > size;
+            if (hasOlder) {
+                rows = rows.subList(0, size);
+            }
+        }
+        if (rows.isEmpty()) {
+            if (!taskRepository.existsById(taskId)) {
+                throw new NotFound("Task not found");
+            }
+            return new CommentPage(rows, null, null);
+        }
+        String older = hasOlder ? CommentCursor.of(rows.get(rows.size() - 1)).encode() : null;
+        String newer = CommentCursor.of(rows.get(0)).encode();
+        return new CommentPage(rows, older, newer);
+    }
+
+    TaskResponse createTaskResponse(TaskEntity task) {
+        return createTaskResponse(task, task.getComments().stream()
                 .map(this::toDto)
-                .toList();
+                .toList());
+    }
+
+    TaskResponse createTaskResponse(TaskEntity task, List<CommentResponse> comments) {
         return new TaskResponse(
                 task.getTaskId(),
                 task.getTaskTitle(),
                 task.getTaskDescription(),
                 task.getPriority(),
                 task.getTaskStatus(),
-                task.getAuthor(),
-                task.getAuthorEmail(),
-                task.getExecutor(),
-                task.getExecutorEmail(),
-                comments
+                task.getAuthor().getName(),
+                task.getAuthor().getEmail(),
+                task.getExecutor().getName(),
+                task.getExecutor().getEmail(),
+                comments,
+                task.getVersion()
         );
     }
 
-    private CommentResponse toDto(CommentEntity comment) {
+    CommentResponse toDto(CommentEntity comment) {
         return new CommentResponse(
                 comment.getId(),
                 comment.getContent(),
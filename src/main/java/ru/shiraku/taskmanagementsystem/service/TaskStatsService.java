@@ -0,0 +1,246 @@
+package ru.shiraku.taskmanagementsystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.shiraku.taskmanagementsystem.event.TaskChangeEvent;
+import ru.shiraku.taskmanagementsystem.exceptions.TaskStatsNotLoadedException;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Status;
+import ru.shiraku.taskmanagementsystem.model.TaskCountRow;
+import ru.shiraku.taskmanagementsystem.model.TaskSnapshot;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskStatsResponse;
+import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
+import ru.shiraku.taskmanagementsystem.repository.TaskRepository;
+import ru.shiraku.taskmanagementsystem.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Task counts by status, priority and executor, kept in memory and moved by committed
+ * {@link TaskChangeEvent}s, so reading them does not depend on the number of tasks.
+ * <p>
+ * The counters are loaded from one grouped query at startup. Changes committed until then
+ * are held back and those recorded after the query started are replayed on top of its
+ * result; until the load is done, {@link #getStats()} refuses with 503. The counters are
+ * compared with the query again on {@code task.stats.reconcile-interval}. A mismatch is
+ * logged, counted in {@code task.stats.drift} and corrected, unless tasks changed while the
+ * query ran, in which case the comparison is left to the next run.
+ */
+@Service
+public class TaskStatsService {
+    private static final Logger log = LoggerFactory.getLogger(TaskStatsService.class);
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final Counter drift;
+    private final LongAdder total = new LongAdder();
+    private final Map<Status, LongAdder> byStatus = new EnumMap<>(Status.class);
+    private final Map<Priority, LongAdder> byPriority = new EnumMap<>(Priority.class);
+    private final Map<UUID, LongAdder> byExecutor = new ConcurrentHashMap<>();
+    private final Map<UUID, String> executorEmails = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    // held only briefly, never during the query: guards the hand-over from pending to loaded
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final List<PendingChange> pending = new ArrayList<>();
+    private volatile boolean loaded;
+
+    public TaskStatsService(TaskRepository taskRepository, UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.drift = Counter.builder("task.stats.drift")
+                .description("Reconciliations that found the task counters out of line with the database")
+                .register(meterRegistry);
+        for (Status status : Status.values()) {
+            byStatus.put(status, new LongAdder());
+        }
+        for (Priority priority : Priority.values()) {
+            byPriority.put(priority, new LongAdder());
+        }
+    }
+
+    public TaskStatsResponse getStats() {
+        if (!loaded) {
+            throw new TaskStatsNotLoadedException("Task statistics are still loading, please retry later.",
+                    RETRY_AFTER_SECONDS);
+        }
+        Map<Status, Long> statuses = new EnumMap<>(Status.class);
+        byStatus.forEach((status, count) -> statuses.put(status, count.sum()));
+        Map<Priority, Long> priorities = new EnumMap<>(Priority.class);
+        byPriority.forEach((priority, count) -> priorities.put(priority, count.sum()));
+        Map<String, Long> executors = new LinkedHashMap<>();
+        byExecutor.forEach((executorId, count) -> {
+            long sum = count.sum();
+            if (sum > 0) {
+                executors.put(executorEmails.getOrDefault(executorId, executorId.toString()), sum);
+            }
+        });
+        return new TaskStatsResponse(total.sum(), statuses, priorities, executors);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChange(TaskChangeEvent event) {
+        if (!loaded) {
+            loadLock.lock();
+            try {
+                if (!loaded) {
+                    pending.add(new PendingChange(changes.incrementAndGet(), event));
+                    return;
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        changes.incrementAndGet();
+        apply(event);
+    }
+
+    private void apply(TaskChangeEvent event) {
+        if (event.getBefore() != null) {
+            apply(event.getBefore(), -1);
+        }
+        if (event.getAfter() != null) {
+            apply(event.getAfter(), 1);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${task.stats.reconcile-interval:5m}",
+            fixedDelayString = "${task.stats.reconcile-interval:5m}")
+    public void reconcile() {
+        // a lock rather than synchronized: the query below would pin a virtual carrier thread
+        reconcileLock.lock();
+        try {
+            doReconcile();
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void doReconcile() {
+        long changesBefore = changes.get();
+        Counts actual = new Counts();
+        for (TaskCountRow row : taskRepository.countByStatusPriorityAndExecutor()) {
+            actual.add(row);
+            executorEmails.putIfAbsent(row.getExecutorId(), row.getExecutorEmail());
+        }
+        if (!loaded) {
+            seed(actual, changesBefore);
+            return;
+        }
+        if (changes.get() != changesBefore) {
+            log.debug("Tasks changed during reconciliation, checking the counters on the next run");
+            return;
+        }
+        if (correctAll(actual)) {
+            drift.increment();
+            log.warn("Task counters differed from the database and were corrected");
+        }
+    }
+
+    /**
+     * Sets the counters to the query result and replays the changes recorded since the query
+     * started. A change committed before the query but recorded just after it is counted
+     * twice; the next quiet reconciliation corrects that.
+     */
+    private void seed(Counts actual, long changesBefore) {
+        int replayed = 0;
+        loadLock.lock();
+        try {
+            correctAll(actual);
+            for (PendingChange change : pending) {
+                if (change.sequence > changesBefore) {
+                    apply(change.event);
+                    replayed++;
+                }
+            }
+            pending.clear();
+            loaded = true;
+        } finally {
+            loadLock.unlock();
+        }
+        log.info("Task counters loaded: {} tasks, {} later changes replayed", actual.total, replayed);
+    }
+
+    private boolean correctAll(Counts actual) {
+        boolean drifted = correct(total, actual.total);
+        for (Status status : Status.values()) {
+            drifted |= correct(byStatus.get(status), actual.byStatus.getOrDefault(status, 0L));
+        }
+        for (Priority priority : Priority.values()) {
+            drifted |= correct(byPriority.get(priority), actual.byPriority.getOrDefault(priority, 0L));
+        }
+        for (UUID executorId : byExecutor.keySet()) {
+            drifted |= correct(byExecutor.get(executorId), actual.byExecutor.getOrDefault(executorId, 0L));
+        }
+        for (Map.Entry<UUID, Long> entry : actual.byExecutor.entrySet()) {
+            drifted |= correct(executorCounter(entry.getKey()), entry.getValue());
+        }
+        return drifted;
+    }
+
+    private void apply(TaskSnapshot task, int delta) {
+        total.add(delta);
+        byStatus.get(task.getStatus()).add(delta);
+        byPriority.get(task.getPriority()).add(delta);
+        executorCounter(task.getExecutorId()).add(delta);
+        if (delta > 0 && !executorEmails.containsKey(task.getExecutorId())) {
+            userRepository.findById(task.getExecutorId())
+                    .map(UserEntity::getEmail)
+                    .ifPresent(email -> executorEmails.put(task.getExecutorId(), email));
+        }
+    }
+
+    private LongAdder executorCounter(UUID executorId) {
+        return byExecutor.computeIfAbsent(executorId, id -> new LongAdder());
+    }
+
+    private static boolean correct(LongAdder counter, long expected) {
+        long difference = expected - counter.sum();
+        if (difference == 0) {
+            return false;
+        }
+        counter.add(difference);
+        return true;
+    }
+
+    private record PendingChange(long sequence, TaskChangeEvent event) {
+    }
+
+    private static class Counts {
+        private long total;
+        private final Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        private final Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+        private final Map<UUID, Long> byExecutor = new HashMap<>();
+
+        private void add(TaskCountRow row) {
+            total += row.getCount();
+            byStatus.merge(row.getStatus(), row.getCount(), Long::sum);
+            byPriority.merge(row.getPriority(), row.getCount(), Long::sum);
+            byExecutor.merge(row.getExecutorId(), row.getCount(), Long::sum);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package ru.shiraku.taskmanagementsystem.service;
 
-import jakarta.transaction.Transactional;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.shiraku.taskmanagementsystem.config.CacheConfig;
 import ru.shiraku.taskmanagementsystem.exceptions.InvalidCredentialsException;
 import ru.shiraku.taskmanagementsystem.exceptions.ShortPasswordException;
 import ru.shiraku.taskmanagementsystem.exceptions.UserAlreadyExistsException;
@@ -15,35 +19,49 @@ import ru.shiraku.taskmanagementsystem.model.dto.UserResponse;
 import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
 import ru.shiraku.taskmanagementsystem.repository.UserRepository;
 import ru.shiraku.taskmanagementsystem.utils.JWTUtils;
+import ru.shiraku.taskmanagementsystem.utils.PasswordHasher;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.calls")
 public class UserService {
     private final JWTUtils jwtUtils;
     private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final TransactionOperations transactionOperations;
 
-    public UserService(JWTUtils jwtUtils, UserRepository userRepository) {
+    public UserService(JWTUtils jwtUtils, UserRepository userRepository, PasswordHasher passwordHasher,
+                       TransactionOperations transactionOperations) {
         this.jwtUtils = jwtUtils;
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.transactionOperations = transactionOperations;
     }
 
-    @Transactional
+    /**
+     * Holds no database connection while BCrypt runs, as {@link #loginUser} does. The email is
+     * checked in a short read-write transaction on the primary, the password is hashed outside
+     * of any transaction and the user is inserted in the repository's own.
+     */
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#request.email")
     public UserResponse registerUser(RegisterRequest request) {
-        if (existByEmail(request.getEmail())) {
+        if (Boolean.TRUE.equals(transactionOperations.execute(status -> existByEmail(request.getEmail())))) {
             throw new UserAlreadyExistsException("The user with this email already exists.");
         }
         if (request.getPassword().length() < 8) {
             throw new ShortPasswordException("Password must be at least 8 characters.");
         }
-        UserEntity user = createUserFromRequest(request);
+        UserEntity user = createUserFromRequest(request, passwordHasher.encode(request.getPassword()));
         userRepository.save(user);
         return new UserResponse(user.getName(), user.getLastName(), user.getEmail(), user.getRole());
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#request.email")
     public void registerAdmin(RegisterAdminRequest request) {
         Optional<UserEntity> userOpt = userRepository.findByEmail(request.getEmail());
         if (userOpt.isEmpty()) {
@@ -54,19 +72,34 @@ public class UserService {
         userRepository.save(user);
     }
 
+    /**
+     * Holds no database connection while BCrypt runs. The user is read in a short read-write
+     * transaction, so that the lookup goes to the primary: a user who has just registered must
+     * be found even if a replica is behind. An outdated hash is replaced in a second one.
+     */
     public String loginUser(LoginRequest request) {
-        Optional<UserEntity> userOpt = userRepository.findByEmail(request.getEmail());
+        Optional<UserEntity> userOpt = transactionOperations.execute(
+                status -> userRepository.findByEmail(request.getEmail()));
         if (userOpt.isEmpty()) {
             throw new NotFound("User not found.");
         }
         UserEntity user = userOpt.get();
-        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new InvalidCredentialsException("Invalid email or password.");
         }
-        return jwtUtils.generateToken(user.getId(), user.getEmail(), user.getRole());
+        if (passwordHasher.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordHasher.encode(request.getPassword()));
+            // merges the detached user in a transaction of the repository's own
+            userRepository.save(user);
+        }
+        return jwtUtils.generateToken(user.getId(), user.getEmail(), user.getRole(), user.getName());
     }
 
+    /**
+     * Cached by email: the returned entity is detached and shared between callers,
+     * so it must be treated as read-only. Misses ({@link NotFound}) are not cached.
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS)
     public UserEntity findByEmail(String email) {
         Optional<UserEntity> userOpt = userRepository.findByEmail(email);
         if (userOpt.isEmpty()) {
@@ -75,6 +108,15 @@ public class UserService {
         return userOpt.get();
     }
 
+    /**
+     * Returns a lazy reference for attributing work to an already authenticated user
+     * without querying the users table.
+     */
+    public UserEntity getReference(UUID id) {
+        return userRepository.getReferenceById(id);
+    }
+
+    @Transactional(readOnly = true)
     public List<UserResponse> getAllUsers() {
         return userRepository.findAll()
                 .stream()
@@ -92,13 +134,12 @@ public class UserService {
         return userRepository.existsByEmail(email);
     }
 
-    private UserEntity createUserFromRequest(RegisterRequest request) {
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private UserEntity createUserFromRequest(RegisterRequest request, String passwordHash) {
         UserEntity user = new UserEntity();
         user.setName(request.getName());
         user.setLastName(request.getLastName());
         user.setEmail(request.getEmail());
-        user.setPassword(encoder.encode(request.getPassword()));
+        user.setPassword(passwordHash);
         user.setRole(Role.USER);
         return user;
     }
@@ -0,0 +1,60 @@
+package ru.shiraku.taskmanagementsystem.utils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Strong ETags built from entity versions, e.g. {@code "3"}.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Weak comparison used for {@code If-None-Match}: {@code W/"3"} matches version 3.
+     */
+    public static boolean matchesAny(String ifNoneMatch, long version) {
+        String etag = of(version);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the versions an {@code If-Match} header accepts. The header is a comma-separated list
+     * compared strongly, so weak or non-numeric tags never match; {@code *} only asks for the task to
+     * exist, which the lookup already guarantees.
+     *
+     * @return {@code null} if the header is absent or contains {@code *}, otherwise the listed versions,
+     * empty if none of them can match
+     */
+    public static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(tag.substring(1, tag.length() - 1)));
+                } catch (NumberFormatException ignored) {
+                    // an opaque tag this server never issued
+                }
+            }
+        }
+        return versions;
+    }
+}
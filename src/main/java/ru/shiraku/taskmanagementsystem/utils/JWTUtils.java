@@ -2,9 +2,11 @@ package ru.shiraku.taskmanagementsystem.utils;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
 import org.springframework.stereotype.Component;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
 import ru.shiraku.taskmanagementsystem.model.Role;
 
 import java.util.Date;
@@ -14,46 +16,48 @@ import java.util.UUID;
 public class JWTUtils {
     private static final String SECRET_KEY = "secretKey12345";
     private static final long EXPIRATION_TIME = 86400000;
+    private static final String ROLE_PREFIX = "ROLE_";
 
-    public String generateToken(UUID id, String email, Role role) {
+    private final Algorithm algorithm = Algorithm.HMAC256(SECRET_KEY);
+    private final JWTVerifier verifier = JWT.require(algorithm).build();
+
+    public String generateToken(UUID id, String email, Role role, String name) {
         return JWT.create()
                 .withSubject(id.toString())
                 .withClaim("email", email)
-                .withClaim("role", "ROLE_" + role.name())
+                .withClaim("role", ROLE_PREFIX + role.name())
+                .withClaim("name", name)
                 .withIssuedAt(new Date())
                 .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .sign(Algorithm.HMAC256(SECRET_KEY));
-    }
-
-    public String extractUsername(String token) {
-        return extractClaim(token, "sub");
-    }
-
-    public String extractEmail(String token) {
-        return extractClaim(token, "email");
-    }
-
-    public String extractRole(String token) {
-        return extractClaim(token, "role");
+                .sign(algorithm);
     }
 
-    private String extractClaim(String token, String claimKey) {
+    /**
+     * Verifies the signature and expiry once and reads every claim the request needs
+     * from that single decode.
+     */
+    public AuthenticatedUser parseToken(String token) {
         DecodedJWT decodedJWT = decodeToken(token);
-        return decodedJWT.getClaim(claimKey).asString();
-    }
-
-    private DecodedJWT decodeToken(String token) {
-        JWTVerifier verifier = JWT.require(Algorithm.HMAC256(SECRET_KEY))
-                .build();
+        String email = decodedJWT.getClaim("email").asString();
+        String role = decodedJWT.getClaim("role").asString();
+        if (decodedJWT.getSubject() == null || email == null || role == null || !role.startsWith(ROLE_PREFIX)
+                || decodedJWT.getExpiresAtAsInstant() == null) {
+            throw new JWTVerificationException("Token is missing required claims.");
+        }
+        try {
+            return new AuthenticatedUser(
+                    UUID.fromString(decodedJWT.getSubject()),
+                    email,
+                    Role.valueOf(role.substring(ROLE_PREFIX.length())),
+                    decodedJWT.getClaim("name").asString(),
+                    decodedJWT.getExpiresAtAsInstant()
+            );
+        } catch (IllegalArgumentException e) {
+            throw new JWTVerificationException("Token has malformed claims.", e);
+        }
+    }
+
+    DecodedJWT decodeToken(String token) {
         return verifier.verify(token);
     }
-
-    public boolean isTokenValid(String token) {
-        return (!isTokenExpired(token));
-    }
-
-    public boolean isTokenExpired(String token) {
-        DecodedJWT decodedJWT = decodeToken(token);
-        return decodedJWT.getExpiresAt().before(new Date());
-    }
 }
@@ -0,0 +1,39 @@
+package ru.shiraku.taskmanagementsystem.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+
+import java.util.Map;
+
+/**
+ * Writes log entries as one JSON object per line, so that the slow-query and slow-request
+ * logs can be filtered and aggregated by field instead of parsed from free text.
+ */
+public final class JsonLog {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private JsonLog() {
+    }
+
+    /**
+     * @param slow entries over the threshold go out at WARN, sampled ones at INFO
+     */
+    public static void write(Logger log, Map<String, Object> entry, boolean slow) {
+        String line;
+        try {
+            line = MAPPER.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            line = entry.toString();
+        }
+        if (slow) {
+            log.warn(line);
+        } else {
+            log.info(line);
+        }
+    }
+
+    public static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
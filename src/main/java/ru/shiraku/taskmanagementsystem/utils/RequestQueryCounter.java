@@ -0,0 +1,127 @@
+package ru.shiraku.taskmanagementsystem.utils;
+
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Counts the SQL statements Hibernate prepares, the entities it loads and the collections
+ * it initializes on the current thread between {@link #start()} and {@link #stop()}.
+ * Work outside such a window is not counted, and neither is work handed to other threads,
+ * except for MVC async handlers: {@link AsyncHandoff} carries the request's counts onto
+ * the thread that runs a {@code Callable} or {@code StreamingResponseBody}.
+ */
+public final class RequestQueryCounter {
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private RequestQueryCounter() {
+    }
+
+    public static Counts start() {
+        Counts counts = new Counts();
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    /**
+     * @return what was counted since {@link #start()}, or {@code null} if counting was not started
+     */
+    public static Counts stop() {
+        Counts counts = CURRENT.get();
+        CURRENT.remove();
+        return counts;
+    }
+
+    /**
+     * @return what has been counted so far, or {@code null} if counting was not started
+     */
+    public static Counts current() {
+        return CURRENT.get();
+    }
+
+    public static final class Counts {
+        private int statements;
+        private int entityLoads;
+        private int collectionFetches;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public int getEntityLoads() {
+            return entityLoads;
+        }
+
+        public int getCollectionFetches() {
+            return collectionFetches;
+        }
+    }
+
+    /**
+     * Registered as {@code hibernate.session_factory.statement_inspector}; leaves the SQL as is.
+     */
+    public static class Statements implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            Counts counts = CURRENT.get();
+            if (counts != null) {
+                counts.statements++;
+            }
+            return sql;
+        }
+    }
+
+    /**
+     * Registered with the MVC async support. The counts are handed over through the executor
+     * and the async dispatch, so they are never updated by two threads at once.
+     */
+    public static class AsyncHandoff implements CallableProcessingInterceptor {
+        private static final String ATTRIBUTE = RequestQueryCounter.class.getName() + ".COUNTS";
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            Counts counts = CURRENT.get();
+            if (counts != null) {
+                request.setAttribute(ATTRIBUTE, counts, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            Counts counts = (Counts) request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (counts != null) {
+                CURRENT.set(counts);
+            }
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            CURRENT.remove();
+        }
+    }
+
+    public static class Loads implements PostLoadEventListener, InitializeCollectionEventListener {
+        @Override
+        public void onPostLoad(PostLoadEvent event) {
+            Counts counts = CURRENT.get();
+            if (counts != null) {
+                counts.entityLoads++;
+            }
+        }
+
+        @Override
+        public void onInitializeCollection(InitializeCollectionEvent event) {
+            Counts counts = CURRENT.get();
+            if (counts != null) {
+                counts.collectionFetches++;
+            }
+        }
+    }
+}
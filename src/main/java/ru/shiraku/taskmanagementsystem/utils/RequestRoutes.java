@@ -0,0 +1,39 @@
+package ru.shiraku.taskmanagementsystem.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * The controller route a request was mapped to, as a template such as {@code /api/tasks/{taskId}},
+ * so that metrics and logs group requests by endpoint rather than by concrete URL.
+ */
+public final class RequestRoutes {
+    public static final String UNKNOWN = "UNKNOWN";
+
+    private RequestRoutes() {
+    }
+
+    /**
+     * @return the route template, or {@link #UNKNOWN} if the request was not mapped (yet)
+     */
+    public static String of(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNKNOWN;
+    }
+
+    /**
+     * @return method and route of the request handled on the current thread, such as
+     * {@code GET /api/tasks/{taskId}}, or {@code null} outside a request
+     */
+    public static String current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return request.getMethod() + " " + of(request);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.shiraku.taskmanagementsystem.utils;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.shiraku.taskmanagementsystem.exceptions.AccessClosed;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+
+public final class SecurityUtils {
+
+    private SecurityUtils() {
+    }
+
+    public static AuthenticatedUser currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        throw new AccessClosed("Authentication required.");
+    }
+}
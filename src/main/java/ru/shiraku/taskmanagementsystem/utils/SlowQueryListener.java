@@ -0,0 +1,176 @@
+package ru.shiraku.taskmanagementsystem.utils;
+
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Logs statements slower than the threshold, and a sampled share of the faster ones, to the
+ * {@code slow-query} logger as JSON: duration, rows, the statement, the shape of its bind
+ * parameters (JDBC type and, for strings and bytes, length, never the value) and the route
+ * of the request that ran it.
+ * <p>
+ * A query is measured until its result set is closed, so the time Hibernate spends reading
+ * rows counts too; rows are the number of {@code next()} calls that found one. For updates
+ * they are the update counts the driver reported.
+ */
+public class SlowQueryListener implements QueryExecutionListener, ResultSetProxyLogicFactory {
+    private static final Logger log = LoggerFactory.getLogger("slow-query");
+
+    // the result set proxy is created right before afterQuery, on the same thread
+    private final ThreadLocal<RowCountingResultSet> opened = new ThreadLocal<>();
+    private final long thresholdNanos;
+    private final double sampleRate;
+
+    public SlowQueryListener(Duration threshold, double sampleRate) {
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RowCountingResultSet resultSet = opened.get();
+        opened.remove();
+        boolean sampled = sampled();
+        if (resultSet != null && execInfo.getResult() instanceof ResultSet) {
+            resultSet.executed(execInfo, queryInfoList, sampled, RequestRoutes.current());
+            return;
+        }
+        long nanos = TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        if (nanos >= thresholdNanos || sampled) {
+            write(execInfo, queryInfoList, updatedRows(execInfo.getResult()), nanos, RequestRoutes.current());
+        }
+    }
+
+    @Override
+    public ResultSetProxyLogic create(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+        RowCountingResultSet logic = new RowCountingResultSet(
+                ResultSetProxyLogicFactory.DEFAULT.create(resultSet, connectionInfo, proxyConfig));
+        opened.set(logic);
+        return logic;
+    }
+
+    private boolean sampled() {
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private void write(ExecutionInfo execInfo, List<QueryInfo> queries, Long rows, long nanos, String route) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("durationMs", JsonLog.millis(nanos));
+        entry.put("executionMs", execInfo.getElapsedTime());
+        entry.put("rows", rows);
+        entry.put("success", execInfo.isSuccess());
+        entry.put("route", route);
+        entry.put("sql", queries.stream().map(QueryInfo::getQuery).distinct().collect(Collectors.joining("; ")));
+        entry.put("parameters", queries.isEmpty() || queries.get(0).getParametersList().isEmpty()
+                ? List.of() : shapes(queries.get(0).getParametersList().get(0)));
+        if (execInfo.isBatch()) {
+            entry.put("batchSize", execInfo.getBatchSize());
+        }
+        entry.put("sampled", nanos < thresholdNanos);
+        JsonLog.write(log, entry, nanos >= thresholdNanos);
+    }
+
+    private static Long updatedRows(Object result) {
+        if (result instanceof Integer count) {
+            return count.longValue();
+        }
+        if (result instanceof Long count) {
+            return count;
+        }
+        if (result instanceof int[] counts) {
+            return IntStream.of(counts).mapToLong(count -> Math.max(count, 0)).sum();
+        }
+        return null;
+    }
+
+    static List<String> shapes(List<ParameterSetOperation> operations) {
+        return operations.stream()
+                .sorted(Comparator.comparingInt(operation -> operation.getArgs()[0] instanceof Integer index
+                        ? index : Integer.MAX_VALUE))
+                .map(SlowQueryListener::shape)
+                .toList();
+    }
+
+    private static String shape(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        Object value = args.length > 1 ? args[1] : null;
+        if (ParameterSetOperation.isSetNullParameterOperation(operation) || value == null) {
+            return "null";
+        }
+        String method = operation.getMethod().getName();
+        String type = method.startsWith("set") && !method.equals("setObject")
+                ? method.substring(3) : value.getClass().getSimpleName();
+        if (value instanceof CharSequence text) {
+            return type + "(" + text.length() + ")";
+        }
+        if (value instanceof byte[] bytes) {
+            return type + "(" + bytes.length + ")";
+        }
+        return type;
+    }
+
+    private class RowCountingResultSet implements ResultSetProxyLogic {
+        private final ResultSetProxyLogic delegate;
+        private ExecutionInfo execInfo;
+        private List<QueryInfo> queries;
+        private boolean sampled;
+        private String route;
+        private long executedAt;
+        private long rows;
+        private boolean closed;
+
+        RowCountingResultSet(ResultSetProxyLogic delegate) {
+            this.delegate = delegate;
+        }
+
+        void executed(ExecutionInfo execInfo, List<QueryInfo> queries, boolean sampled, String route) {
+            this.execInfo = execInfo;
+            this.queries = queries;
+            this.sampled = sampled;
+            this.route = route;
+            this.executedAt = System.nanoTime();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = delegate.invoke(proxy, method, args);
+            if (execInfo != null) {
+                if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                    rows++;
+                } else if (method.getName().equals("close") && !closed) {
+                    closed = true;
+                    long nanos = TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime())
+                            + System.nanoTime() - executedAt;
+                    if (nanos >= thresholdNanos || sampled) {
+                        write(execInfo, queries, rows, nanos, route);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
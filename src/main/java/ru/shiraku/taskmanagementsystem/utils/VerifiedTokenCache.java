@@ -0,0 +1,100 @@
+package ru.shiraku.taskmanagementsystem.utils;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers recently verified tokens so repeated requests with the same bearer token
+ * skip the HMAC check. Each entry expires together with its token; tokens that fail
+ * verification are never cached. Verifications that do run are timed as
+ * {@code jwt.verification}, tagged with their result.
+ */
+@Component
+public class VerifiedTokenCache {
+    private static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private final JWTUtils jwtUtils;
+    private final Cache<String, AuthenticatedUser> cache;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+
+    public VerifiedTokenCache(JWTUtils jwtUtils,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this.jwtUtils = jwtUtils;
+        this.validTimer = Timer.builder("jwt.verification").tag("result", "valid").register(meterRegistry);
+        this.invalidTimer = Timer.builder("jwt.verification").tag("result", "invalid").register(meterRegistry);
+        if (enabled) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfter(new UntilTokenExpires())
+                    .recordStats()
+                    .build();
+            // the same tag keys as the Spring caches, or Prometheus drops whichever registers second
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME,
+                    "cache.manager", "verifiedTokenCache", "name", CACHE_NAME);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * @return the principal carried by the token, or {@code null} if the token is invalid or expired
+     */
+    public AuthenticatedUser verify(String token) {
+        if (cache == null) {
+            return parse(token);
+        }
+        AuthenticatedUser user = cache.getIfPresent(token);
+        if (user != null) {
+            return user;
+        }
+        user = parse(token);
+        if (user != null) {
+            cache.put(token, user);
+        }
+        return user;
+    }
+
+    private AuthenticatedUser parse(String token) {
+        long start = System.nanoTime();
+        try {
+            AuthenticatedUser user = jwtUtils.parseToken(token);
+            validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return user;
+        } catch (JWTVerificationException e) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+    }
+
+    private static class UntilTokenExpires implements Expiry<String, AuthenticatedUser> {
+        @Override
+        public long expireAfterCreate(String token, AuthenticatedUser user, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), user.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, AuthenticatedUser user, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, AuthenticatedUser user, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
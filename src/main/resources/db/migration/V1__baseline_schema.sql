@@ -0,0 +1,40 @@
+-- Schema as previously produced by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version and skip this script.
+
+create sequence tasks_seq start with 1 increment by 50;
+
+create sequence comments_seq start with 1 increment by 50;
+
+create table users (
+    id         uuid         not null,
+    email      varchar(255) not null unique,
+    last_name  varchar(255) not null,
+    name       varchar(255) not null,
+    password   varchar(255) not null,
+    role       varchar(255) not null check (role in ('ADMIN', 'USER')),
+    primary key (id)
+);
+
+create table tasks (
+    task_id          bigint       not null,
+    author           varchar(255) not null,
+    author_email     varchar(255) not null,
+    executor         varchar(255) not null,
+    executor_email   varchar(255) not null,
+    priority         varchar(255) not null check (priority in ('HIGH', 'MEDIUM', 'LOW')),
+    task_description varchar(255) not null,
+    task_status      varchar(255) not null check (task_status in ('TODO', 'IN_PROCESS', 'COMPLETED')),
+    task_title       varchar(255) not null,
+    primary key (task_id)
+);
+
+create table comments (
+    comments_id bigint       not null,
+    task        bigint       not null,
+    timestamp   timestamp(6) not null,
+    author      uuid         not null,
+    content     varchar(255) not null,
+    primary key (comments_id),
+    constraint fk_comments_author foreign key (author) references users,
+    constraint fk_comments_task foreign key (task) references tasks
+);
@@ -0,0 +1,17 @@
+-- Indexes for the filters built in TaskService.buildSpecification and for comment paging.
+-- task_id is the tie-breaker of every task list order, so it closes each composite key.
+
+create index if not exists idx_tasks_executor_status_priority
+    on tasks (executor_email, task_status, priority, task_id);
+
+create index if not exists idx_tasks_author_status_priority
+    on tasks (author_email, task_status, priority, task_id);
+
+create index if not exists idx_tasks_status_priority
+    on tasks (task_status, priority, task_id);
+
+create index if not exists idx_tasks_priority
+    on tasks (priority, task_id);
+
+create index if not exists idx_comments_task_timestamp
+    on comments (task, timestamp, comments_id);
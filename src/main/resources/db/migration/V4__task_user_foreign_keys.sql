@@ -0,0 +1,26 @@
+-- Replace the copied author/executor names and emails with foreign keys to users.
+-- Rows whose email has no matching user make the "set not null" steps fail, so
+-- orphaned tasks have to be fixed by hand before this migration can run.
+
+alter table tasks add column author_id uuid;
+alter table tasks add column executor_id uuid;
+
+update tasks set author_id = (select u.id from users u where u.email = tasks.author_email);
+update tasks set executor_id = (select u.id from users u where u.email = tasks.executor_email);
+
+alter table tasks alter column author_id set not null;
+alter table tasks alter column executor_id set not null;
+
+drop index if exists idx_tasks_executor_status_priority;
+drop index if exists idx_tasks_author_status_priority;
+
+alter table tasks drop column author;
+alter table tasks drop column author_email;
+alter table tasks drop column executor;
+alter table tasks drop column executor_email;
+
+create index idx_tasks_executor_status_priority on tasks (executor_id, task_status, priority, task_id);
+create index idx_tasks_author_status_priority on tasks (author_id, task_status, priority, task_id);
+
+alter table tasks add constraint fk_tasks_author foreign key (author_id) references users;
+alter table tasks add constraint fk_tasks_executor foreign key (executor_id) references users;
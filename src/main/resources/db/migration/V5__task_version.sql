@@ -0,0 +1,2 @@
+-- Optimistic locking version of a task; it also serves as the task's ETag.
+alter table tasks add column version bigint not null default 0;
@@ -7,19 +7,32 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.SpringBootConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.shiraku.taskmanagementsystem.controller.AdminController;
+import ru.shiraku.taskmanagementsystem.exceptions.GlobalExceptionHandler;
+import ru.shiraku.taskmanagementsystem.exceptions.TaskStatsNotLoadedException;
+import ru.shiraku.taskmanagementsystem.model.ExportFormat;
 import ru.shiraku.taskmanagementsystem.model.Priority;
 import ru.shiraku.taskmanagementsystem.model.Role;
 import ru.shiraku.taskmanagementsystem.model.Status;
-import ru.shiraku.taskmanagementsystem.model.dto.TaskResponse;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskStatsResponse;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskSummaryResponse;
 import ru.shiraku.taskmanagementsystem.model.dto.UserResponse;
+import ru.shiraku.taskmanagementsystem.service.ExportService;
 import ru.shiraku.taskmanagementsystem.service.TaskService;
+import ru.shiraku.taskmanagementsystem.service.TaskStatsService;
 import ru.shiraku.taskmanagementsystem.service.UserService;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,6 +47,10 @@ public class AdminControllerTest {
     private UserService userService;
     @Mock
     private TaskService taskService;
+    @Mock
+    private ExportService exportService;
+    @Mock
+    private TaskStatsService taskStatsService;
 
 
     @BeforeEach
@@ -52,7 +69,11 @@ public class AdminControllerTest {
 
         when(userService.getAllUsers()).thenReturn(mockUsers);
 
-        mockMvc.perform(get("/api/admin/users"))
+        MvcResult result = mockMvc.perform(get("/api/admin/users"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].name").value("John"))
@@ -65,16 +86,20 @@ public class AdminControllerTest {
 
     @Test
     void getAllTask_shouldReturnListOfTasks() throws Exception {
-        List<TaskResponse> mockTasks = List.of(
-                new TaskResponse(1L, "Task 1", "Description 1", Priority.HIGH, Status.TODO,
-                        "Author 1", "author1@example.com", "Executor 1", "executor1@example.com", List.of()),
-                new TaskResponse(2L, "Task 2", "Description 2", Priority.MEDIUM, Status.IN_PROCESS,
-                        "Author 2", "author2@example.com", "Executor 2", "executor2@example.com", List.of())
+        List<TaskSummaryResponse> mockTasks = List.of(
+                new TaskSummaryResponse(1L, "Task 1", "Description 1", Priority.HIGH, Status.TODO,
+                        "Author 1", "author1@example.com", "Executor 1", "executor1@example.com", 0L, null),
+                new TaskSummaryResponse(2L, "Task 2", "Description 2", Priority.MEDIUM, Status.IN_PROCESS,
+                        "Author 2", "author2@example.com", "Executor 2", "executor2@example.com", 0L, null)
         );
 
         when(taskService.getAllTasks()).thenReturn(mockTasks);
 
-        mockMvc.perform(get("/api/admin/tasks"))
+        MvcResult result = mockMvc.perform(get("/api/admin/tasks"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].taskId").value(1))
@@ -86,4 +111,53 @@ public class AdminControllerTest {
 
         verify(taskService, times(1)).getAllTasks();
     }
+
+    @Test
+    void exportTasks_shouldStreamNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"taskId\":1}\n{\"taskId\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportTasks(any(OutputStream.class), eq(ExportFormat.NDJSON));
+
+        MvcResult result = mockMvc.perform(get("/api/admin/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string("{\"taskId\":1}\n{\"taskId\":2}\n"));
+
+        verify(exportService, times(1)).exportTasks(any(OutputStream.class), eq(ExportFormat.NDJSON));
+    }
+
+    @Test
+    void getTaskStats_shouldReturnCounters() throws Exception {
+        when(taskStatsService.getStats()).thenReturn(new TaskStatsResponse(3,
+                Map.of(Status.TODO, 2L, Status.COMPLETED, 1L),
+                Map.of(Priority.HIGH, 3L),
+                Map.of("user@example.com", 3L)));
+
+        mockMvc.perform(get("/api/admin/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byStatus.TODO").value(2))
+                .andExpect(jsonPath("$.byPriority.HIGH").value(3))
+                .andExpect(jsonPath("$.byExecutor['user@example.com']").value(3));
+
+        verify(taskStatsService, times(1)).getStats();
+    }
+
+    @Test
+    void getTaskStats_shouldReturn503UntilLoaded() throws Exception {
+        mockMvc = MockMvcBuilders.standaloneSetup(adminController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        when(taskStatsService.getStats()).thenThrow(new TaskStatsNotLoadedException("Loading", 5));
+
+        mockMvc.perform(get("/api/admin/tasks/stats"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"));
+    }
 }
@@ -0,0 +1,123 @@
+package ru.shiraku.taskmanagementsystem;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.shiraku.taskmanagementsystem.filter.AdmissionControlFilter;
+import ru.shiraku.taskmanagementsystem.filter.AdmissionControlFilter.RouteClass;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdmissionControlTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void classify_shouldSeparateAuthReadWriteAndAdmin() {
+        assertThat(AdmissionControlFilter.classify(new MockHttpServletRequest("POST", "/api/user/login")))
+                .isEqualTo(RouteClass.AUTH);
+        assertThat(AdmissionControlFilter.classify(new MockHttpServletRequest("GET", "/api/tasks/7")))
+                .isEqualTo(RouteClass.READ);
+        assertThat(AdmissionControlFilter.classify(new MockHttpServletRequest("POST", "/api/tasks/7/add-comment")))
+                .isEqualTo(RouteClass.WRITE);
+        assertThat(AdmissionControlFilter.classify(new MockHttpServletRequest("GET", "/api/admin/tasks")))
+                .isEqualTo(RouteClass.ADMIN);
+        assertThat(AdmissionControlFilter.classify(new MockHttpServletRequest("GET", "/api/tasks/events"))).isNull();
+        assertThat(AdmissionControlFilter.classify(new MockHttpServletRequest("GET", "/actuator/health"))).isNull();
+    }
+
+    @Test
+    void concurrencyLimit_shouldRejectOnlyTheFullClass() throws Exception {
+        AdmissionControlFilter filter = filter(new MockEnvironment().withProperty("admission.admin.max-concurrent", "1"));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/admin/tasks"), new MockHttpServletResponse(), (req, res) -> {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/admin/users"), rejected, (r, s) -> { });
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/7"), admitted, (r, s) -> { });
+        });
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(admitted.getStatus()).isEqualTo(200);
+        assertThat(rejectedCount("admin", "concurrency")).isEqualTo(1);
+
+        MockHttpServletResponse afterwards = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/admin/users"), afterwards, (r, s) -> { });
+        assertThat(afterwards.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void asyncRequest_shouldHoldItsSlotUntilCompleted() throws Exception {
+        AdmissionControlFilter filter = filter(new MockEnvironment().withProperty("admission.admin.max-concurrent", "1"));
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/api/admin/tasks/export");
+        export.setAsyncSupported(true);
+
+        filter.doFilter(export, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertThat(admit(filter, "GET", "/api/admin/tasks")).isEqualTo(503);
+
+        export.getAsyncContext().complete();
+        assertThat(admit(filter, "GET", "/api/admin/tasks")).isEqualTo(200);
+    }
+
+    @Test
+    void poolSaturation_shouldShedClassesOverTheirWaitingLimit() throws Exception {
+        try (HikariDataSource pool = new HikariDataSource()) {
+            pool.setJdbcUrl("jdbc:h2:mem:admission-" + UUID.randomUUID());
+            pool.setMaximumPoolSize(1);
+            pool.setConnectionTimeout(5000);
+            AdmissionControlFilter filter = filter(new MockEnvironment()
+                    .withProperty("admission.read.max-pool-waiting", "0")
+                    .withProperty("admission.write.max-pool-waiting", "-1"), pool);
+
+            CompletableFuture<Void> waiter;
+            try (Connection ignored = pool.getConnection()) {
+                waiter = CompletableFuture.runAsync(() -> {
+                    try (Connection connection = pool.getConnection()) {
+                        connection.isValid(1);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                while (pool.getHikariPoolMXBean().getThreadsAwaitingConnection() == 0) {
+                    Thread.sleep(5);
+                }
+
+                assertThat(admit(filter, "GET", "/api/tasks/7")).isEqualTo(503);
+                assertThat(admit(filter, "PATCH", "/api/tasks/7/update-status")).isEqualTo(200);
+                assertThat(rejectedCount("read", "pool")).isEqualTo(1);
+            }
+            waiter.join();
+            assertThat(admit(filter, "GET", "/api/tasks/7")).isEqualTo(200);
+        }
+    }
+
+    private AdmissionControlFilter filter(MockEnvironment environment, DataSource... dataSources) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        for (int i = 0; i < dataSources.length; i++) {
+            beanFactory.addBean("dataSource" + i, dataSources[i]);
+        }
+        return new AdmissionControlFilter(environment, beanFactory.getBeanProvider(DataSource.class), meterRegistry);
+    }
+
+    private static int admit(AdmissionControlFilter filter, String method, String uri) throws Exception {
+        HttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> { });
+        return response.getStatus();
+    }
+
+    private double rejectedCount(String routeClass, String reason) {
+        return meterRegistry.get("admission.rejected").tags("class", routeClass, "reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,112 @@
+package ru.shiraku.taskmanagementsystem;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import ru.shiraku.taskmanagementsystem.model.Role;
+import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
+import ru.shiraku.taskmanagementsystem.repository.UserRepository;
+import ru.shiraku.taskmanagementsystem.service.TaskService;
+import ru.shiraku.taskmanagementsystem.utils.JWTUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fills the bulk pool and its queue with admin lists under the default settings and checks
+ * that the next one is turned away by the bulkhead, which admission control lets it reach.
+ */
+@SpringBootTest(
+        classes = TaskManagementSystemApplication.class,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:bulkhead;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false",
+                "spring.docker.compose.enabled=false",
+                "ADMIN_SECRET_KEY=test"
+        })
+@AutoConfigureMockMvc
+public class BulkheadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoSpyBean
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JWTUtils jwtUtils;
+
+    @Test
+    void fullBulkPool_shouldRejectWithBulkheadRetryAfter() throws Exception {
+        UserEntity admin = new UserEntity();
+        admin.setName("Bulkhead");
+        admin.setLastName("Admin");
+        admin.setEmail(UUID.randomUUID() + "@example.com");
+        admin.setPassword("hash");
+        admin.setRole(Role.ADMIN);
+        admin = userRepository.save(admin);
+        String bearer = "Bearer " + jwtUtils.generateToken(admin.getId(), admin.getEmail(), Role.ADMIN, admin.getName());
+        CountDownLatch released = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            released.await();
+            return invocation.callRealMethod();
+        }).when(taskService).getAllTasks();
+
+        List<MvcResult> held = new ArrayList<>();
+        try {
+            // bulkhead.bulk.threads + bulkhead.bulk.queue-capacity
+            for (int i = 0; i < 10; i++) {
+                held.add(mockMvc.perform(get("/api/admin/tasks").header("Authorization", bearer))
+                        .andExpect(request().asyncStarted())
+                        .andReturn());
+            }
+
+            MvcResult rejected = mockMvc.perform(get("/api/admin/tasks").header("Authorization", bearer))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            // a rejected Callable never reaches MockMvc's result interceptor, so asyncDispatch()
+            // cannot be used; dispatch the request the same way by hand
+            assertInstanceOf(TaskRejectedException.class,
+                    WebAsyncUtils.getAsyncManager(rejected.getRequest()).getConcurrentResult());
+            mockMvc.perform(servletContext -> {
+                        MockHttpServletRequest request = rejected.getRequest();
+                        request.setDispatcherType(DispatcherType.ASYNC);
+                        request.setAsyncStarted(false);
+                        return request;
+                    })
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "5"));
+        } finally {
+            released.countDown();
+        }
+        for (MvcResult result : held) {
+            result.getAsyncResult(10_000);
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ru.shiraku.taskmanagementsystem;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.shiraku.taskmanagementsystem.config.EntityCacheConfig;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Role;
+import ru.shiraku.taskmanagementsystem.model.dto.CreateTaskRequest;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskResponse;
+import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
+import ru.shiraku.taskmanagementsystem.repository.UserRepository;
+import ru.shiraku.taskmanagementsystem.service.TaskService;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * With the entity cache on, a task that has been read once is read again, together with
+ * its author, executor and comments, without a single SQL statement.
+ */
+@SpringBootTest(
+        classes = TaskManagementSystemApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:entity-cache;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + "ru.shiraku.taskmanagementsystem.EntityCacheTest$RecordingInspector",
+                "entity-cache.enabled=true",
+                "spring.docker.compose.enabled=false",
+                "ADMIN_SECRET_KEY=test"
+        })
+public class EntityCacheTest {
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AuthenticatedUser admin;
+
+    @BeforeEach
+    void setup() {
+        UserEntity user = new UserEntity();
+        user.setName("Admin");
+        user.setLastName("Cache");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("hash");
+        user.setRole(Role.ADMIN);
+        user = userRepository.save(user);
+        admin = new AuthenticatedUser(user.getId(), user.getEmail(), Role.ADMIN, user.getName(), null);
+    }
+
+    @Test
+    void repeatedGetTask_shouldNotQueryTheDatabase() {
+        Long taskId = createTaskWithComments();
+        taskService.getTask(taskId, admin);
+        double hits = hits(EntityCacheConfig.TASKS);
+        RecordingInspector.STATEMENTS.clear();
+
+        TaskResponse task = taskService.getTask(taskId, admin);
+
+        assertEquals(List.of(), RecordingInspector.STATEMENTS);
+        assertEquals(3, task.getComments().size());
+        assertEquals(admin.getEmail(), task.getExecutorEmail());
+        assertTrue(hits(EntityCacheConfig.TASKS) > hits);
+    }
+
+    @Test
+    void appendedComments_shouldNotBeServedFromStaleCollection() {
+        Long taskId = createTaskWithComments();
+        taskService.getTask(taskId, admin);
+
+        taskService.appendComments(taskId, admin, List.of("fourth"));
+        TaskResponse task = taskService.getTask(taskId, admin);
+
+        assertEquals(4, task.getComments().size());
+        assertEquals(taskService.getTaskVersion(taskId, admin), task.getVersion());
+    }
+
+    private Long createTaskWithComments() {
+        Long taskId = taskService.createTask(admin,
+                new CreateTaskRequest("Cached", "Description", Priority.HIGH, admin.getEmail())).getTaskId();
+        taskService.appendComments(taskId, admin, List.of("first", "second"));
+        taskService.addComment(taskId, admin, "third");
+        return taskId;
+    }
+
+    private double hits(String region) {
+        return meterRegistry.get("cache.gets").tag("cache", region).tag("result", "hit").functionCounter().count();
+    }
+}
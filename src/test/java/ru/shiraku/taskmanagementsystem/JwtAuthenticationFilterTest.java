@@ -0,0 +1,77 @@
+package ru.shiraku.taskmanagementsystem;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.shiraku.taskmanagementsystem.filter.JwtAuthenticationFilter;
+import ru.shiraku.taskmanagementsystem.model.Role;
+import ru.shiraku.taskmanagementsystem.utils.JWTUtils;
+import ru.shiraku.taskmanagementsystem.utils.VerifiedTokenCache;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JwtAuthenticationFilterTest {
+    private JWTUtils jwtUtils;
+    private SimpleMeterRegistry meterRegistry;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setup() {
+        SecurityContextHolder.clearContext();
+        jwtUtils = spy(new JWTUtils());
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new JwtAuthenticationFilter(new VerifiedTokenCache(jwtUtils, meterRegistry, true, 100));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_shouldVerifyTokenOnceAndServeRepeatsFromCache() throws Exception {
+        String token = jwtUtils.generateToken(UUID.randomUUID(), "john.doe@example.com", Role.ADMIN, "John");
+
+        for (int i = 0; i < 3; i++) {
+            SecurityContextHolder.clearContext();
+            filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            assertNotNull(authentication);
+            assertEquals("john.doe@example.com", authentication.getName());
+            assertEquals("ROLE_ADMIN", authentication.getAuthorities().iterator().next().getAuthority());
+        }
+
+        verify(jwtUtils, times(1)).parseToken(token);
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "jwt.verified-tokens")
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt.verified-tokens")
+                .tag("result", "miss").functionCounter().count());
+        assertEquals(1, meterRegistry.get("jwt.verification").tag("result", "valid").timer().count());
+    }
+
+    @Test
+    void doFilter_shouldLeaveRequestAnonymousForInvalidToken() throws Exception {
+        filter.doFilter(bearer("not.a.token"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(bearer("not.a.token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtUtils, times(2)).parseToken("not.a.token");
+        assertEquals(2, meterRegistry.get("jwt.verification").tag("result", "invalid").timer().count());
+    }
+
+    private MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,127 @@
+package ru.shiraku.taskmanagementsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Role;
+import ru.shiraku.taskmanagementsystem.model.dto.CreateTaskRequest;
+import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
+import ru.shiraku.taskmanagementsystem.repository.UserRepository;
+import ru.shiraku.taskmanagementsystem.service.TaskService;
+import ru.shiraku.taskmanagementsystem.utils.JWTUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Drives one authenticated request through the full filter chain and checks that the
+ * Prometheus scrape shows it from every side: route histogram, per-request query count,
+ * service timer, JWT verification, caches, Hibernate statistics and the connection pool.
+ * The scrape is served on the management port only.
+ */
+@SpringBootTest(
+        classes = TaskManagementSystemApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "management.server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:metrics;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false",
+                "spring.docker.compose.enabled=false",
+                "ADMIN_SECRET_KEY=test"
+        })
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JWTUtils jwtUtils;
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    private final TestRestTemplate restTemplate = new TestRestTemplate();
+    private String token;
+    private Long taskId;
+
+    @BeforeEach
+    void setup() {
+        UserEntity user = new UserEntity();
+        user.setName("Admin");
+        user.setLastName("Metrics");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("hash");
+        user.setRole(Role.ADMIN);
+        user = userRepository.save(user);
+        AuthenticatedUser admin = new AuthenticatedUser(user.getId(), user.getEmail(), Role.ADMIN, user.getName(), null);
+        taskId = taskService.createTask(admin,
+                new CreateTaskRequest("Measured", "Description", Priority.LOW, user.getEmail())).getTaskId();
+        token = jwtUtils.generateToken(user.getId(), user.getEmail(), Role.ADMIN, user.getName());
+    }
+
+    @Test
+    void prometheus_shouldExposeRequestServiceHibernateAndPoolMetrics() throws Exception {
+        mockMvc.perform(get("/api/tasks/{taskId}", taskId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(scrape.getBody())
+                .contains("http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",method=\"GET\","
+                        + "outcome=\"SUCCESS\",status=\"200\",uri=\"/api/tasks/{taskId}\",le=")
+                .matches("(?s).*http_server_requests_queries_sum\\{"
+                        + "method=\"GET\",uri=\"/api/tasks/\\{taskId}\"} [1-9].*")
+                .contains("service_calls_seconds_bucket{class="
+                        + "\"ru.shiraku.taskmanagementsystem.service.TaskService\",exception=\"none\","
+                        + "method=\"getTask\"")
+                .contains("jwt_verification_seconds_count{result=\"valid\"} 1")
+                .contains("hibernate_entities_loads_total{")
+                .contains("hibernate_collections_fetches_total{")
+                .contains("hikaricp_connections_active{")
+                .contains("admission_rejected_total{class=\"admin\",reason=\"pool\"}")
+                .contains("executor_active_threads{name=\"bulkExecutor\"")
+                .contains("cache_gets_total{cache=\"users\",cache_manager=\"cacheManager\"")
+                .contains("cache_gets_total{cache=\"jwt.verified-tokens\",cache_manager=");
+
+        // the rest of the actuator still needs an admin token
+        assertThat(restTemplate.getForEntity("http://localhost:" + managementPort + "/actuator/metrics", String.class)
+                .getStatusCode().is4xxClientError()).isTrue();
+        // not reachable on the application port, with or without a token
+        assertThat(restTemplate.getForEntity("http://localhost:" + serverPort + "/actuator/prometheus", String.class)
+                .getStatusCode()).isNotEqualTo(HttpStatus.OK);
+        assertThat(restTemplate.exchange(RequestEntity.get("http://localhost:" + serverPort + "/actuator/prometheus")
+                .header("Authorization", "Bearer " + token).build(), String.class)
+                .getStatusCode()).isNotEqualTo(HttpStatus.OK);
+    }
+}
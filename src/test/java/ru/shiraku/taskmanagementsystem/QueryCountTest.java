@@ -0,0 +1,208 @@
+package ru.shiraku.taskmanagementsystem;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Role;
+import ru.shiraku.taskmanagementsystem.model.dto.CreateTaskRequest;
+import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
+import ru.shiraku.taskmanagementsystem.repository.UserRepository;
+import ru.shiraku.taskmanagementsystem.service.TaskService;
+import ru.shiraku.taskmanagementsystem.utils.JWTUtils;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs real requests through the full stack on H2 with the connection pool wrapped in a
+ * datasource-proxy that records every statement, and holds the hot endpoints to a
+ * statement budget. The tasks have comments from several authors, so a lazy load per
+ * task, comment or user in the response mapping shows up as a blown budget.
+ */
+@SpringBootTest(
+        classes = {TaskManagementSystemApplication.class, QueryCountTest.RecordingDataSource.class},
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:query-count;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false",
+                "spring.docker.compose.enabled=false",
+                "ADMIN_SECRET_KEY=test"
+        })
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryCountTest {
+    private static final int TASKS = 60;
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class RecordingDataSource {
+        @Bean
+        static BeanPostProcessor statementRecorder() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                        return ProxyDataSourceBuilder.create(dataSource).listener(new Recorder()).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    static class Recorder implements QueryExecutionListener {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            queryInfoList.forEach(query -> STATEMENTS.add(query.getQuery()));
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JWTUtils jwtUtils;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AuthenticatedUser admin;
+    private AuthenticatedUser executor;
+    private Long taskId;
+
+    @BeforeAll
+    void seed() {
+        admin = createUser(Role.ADMIN);
+        executor = createUser(Role.USER);
+        List<AuthenticatedUser> commenters = List.of(createUser(Role.USER), createUser(Role.USER), createUser(Role.USER));
+        for (int i = 0; i < TASKS; i++) {
+            taskId = taskService.createTask(admin, new CreateTaskRequest("Task " + i, "Description",
+                    Priority.values()[i % Priority.values().length], executor.getEmail())).getTaskId();
+            for (AuthenticatedUser commenter : commenters) {
+                taskService.appendComments(taskId, commenter, List.of("Comment from " + commenter.getName()));
+            }
+        }
+    }
+
+    @Test
+    void taskPage_shouldCountAndSelectOnly() throws Exception {
+        assertStatements(2, get("/api/tasks").param("size", "50").header("Authorization", bearer(admin)));
+    }
+
+    @Test
+    void task_shouldLoadTaskUsersAndCommentsInTwoStatements() throws Exception {
+        assertStatements(2, get("/api/tasks/{taskId}", taskId).header("Authorization", bearer(admin)));
+    }
+
+    @Test
+    void executorTasks_shouldBeOneStatement() throws Exception {
+        assertStatements(1, get("/api/user/tasks").header("Authorization", bearer(executor)));
+    }
+
+    @Test
+    void adminTasks_shouldBeOneStatement() throws Exception {
+        assertStatements(1, get("/api/admin/tasks").header("Authorization", bearer(admin)));
+
+        // the handler runs on the bulk executor, and its statement still counts for the request
+        DistributionSummary queries = meterRegistry.get("http.server.requests.queries")
+                .tags("method", "GET", "uri", "/api/admin/tasks")
+                .summary();
+        assertEquals(1, queries.count());
+        assertEquals(1, queries.totalAmount());
+    }
+
+    @Test
+    void addComment_shouldNotInitializeCommentCollection() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long collectionFetches = statistics.getCollectionFetchCount();
+
+        assertStatements(6, post("/api/tasks/{taskId}/add-comment", taskId)
+                .header("Authorization", bearer(executor))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"comment\":\"Measured\"}"))
+                .andExpect(jsonPath("$.comments.length()").value(4))
+                .andExpect(jsonPath("$.comments[3].comment").value("Measured"));
+
+        assertEquals(collectionFetches, statistics.getCollectionFetchCount());
+        // without the entity cache the version is bumped by one update, not under a row lock
+        assertTrue(STATEMENTS.stream().anyMatch(sql -> sql.startsWith("update tasks ")),
+                String.join("\n", STATEMENTS));
+        assertTrue(STATEMENTS.stream().noneMatch(sql -> sql.contains("for update")), String.join("\n", STATEMENTS));
+    }
+
+    private ResultActions assertStatements(int budget, RequestBuilder request) throws Exception {
+        STATEMENTS.clear();
+        ResultActions result = mockMvc.perform(request);
+        MvcResult started = result.andReturn();
+        if (started.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(started));
+        }
+        result.andExpect(status().is2xxSuccessful());
+        assertTrue(STATEMENTS.size() <= budget,
+                STATEMENTS.size() + " statements, expected at most " + budget + ":\n" + String.join("\n", STATEMENTS));
+        return result;
+    }
+
+    private AuthenticatedUser createUser(Role role) {
+        UserEntity user = new UserEntity();
+        user.setName("Name " + UUID.randomUUID());
+        user.setLastName("LastName");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("hash");
+        user.setRole(role);
+        user = userRepository.save(user);
+        return new AuthenticatedUser(user.getId(), user.getEmail(), role, user.getName(), null);
+    }
+
+    private String bearer(AuthenticatedUser user) {
+        return "Bearer " + jwtUtils.generateToken(user.getId(), user.getEmail(), user.getRole(), user.getName());
+    }
+}
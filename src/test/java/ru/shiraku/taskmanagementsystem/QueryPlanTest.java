@@ -0,0 +1,159 @@
+package ru.shiraku.taskmanagementsystem;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.shiraku.taskmanagementsystem.exceptions.NotFound;
+import ru.shiraku.taskmanagementsystem.model.Role;
+import ru.shiraku.taskmanagementsystem.model.TaskSort;
+import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
+import ru.shiraku.taskmanagementsystem.repository.CommentRepository;
+import ru.shiraku.taskmanagementsystem.repository.UserRepository;
+import ru.shiraku.taskmanagementsystem.service.TaskService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the Flyway migrations on H2 and checks that the SQL Hibernate generates for the
+ * hot task and comment queries is planned as an index lookup rather than a table scan.
+ * H2 backs every foreign key with an index of its own and may choose it over the
+ * composite one from the migrations, so foreign key filters are checked by the indexed
+ * condition instead of the index name; PostgreSQL only has the composite indexes.
+ */
+@SpringBootTest(
+        classes = TaskManagementSystemApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:query-plan;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + "ru.shiraku.taskmanagementsystem.QueryPlanTest$RecordingInspector",
+                "spring.docker.compose.enabled=false",
+                "ADMIN_SECRET_KEY=test"
+        })
+public class QueryPlanTest {
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @BeforeEach
+    void setup() {
+        createUser("user@example.com");
+        createUser("admin@example.com");
+        RecordingInspector.STATEMENTS.clear();
+    }
+
+    private void createUser(String email) {
+        if (!userRepository.existsByEmail(email)) {
+            UserEntity user = new UserEntity();
+            user.setName("Name");
+            user.setLastName("LastName");
+            user.setEmail(email);
+            user.setPassword("hash");
+            user.setRole(Role.USER);
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    void tasksByExecutor_shouldUseIndexOnExecutor() {
+        taskService.getTasks(null, "user@example.com", null, null, TaskSort.ID, Sort.Direction.ASC, 0, 10);
+
+        assertPlanUses("EXECUTOR_ID = ?1", userRepository.findByEmail("user@example.com").orElseThrow().getId());
+    }
+
+    @Test
+    void tasksByAuthorAndStatus_shouldUseIndexOnAuthor() {
+        taskService.getTasks("admin@example.com", null, "TODO", null, TaskSort.PRIORITY, Sort.Direction.DESC, 0, 10);
+
+        assertPlanUses("AUTHOR_ID = ?1", userRepository.findByEmail("admin@example.com").orElseThrow().getId(), "TODO");
+    }
+
+    @Test
+    void tasksByStatus_shouldUseStatusIndex() {
+        taskService.getTasks(null, null, "IN_PROCESS", null, TaskSort.ID, Sort.Direction.ASC, 0, 10);
+
+        assertPlanUses("IDX_TASKS_STATUS_PRIORITY", "IN_PROCESS");
+    }
+
+    @Test
+    void commentsByTask_shouldUseIndexOnTask() {
+        assertThrows(NotFound.class, () -> taskService.getCommentsByTask(1L, null, null, 50));
+
+        assertPlanUses("TASK = ?1", 1L);
+    }
+
+    @Test
+    void olderComments_shouldUseRowValueCursor() {
+        commentRepository.findOlder(1L, LocalDateTime.of(2025, 1, 1, 0, 0), 10L, Limit.of(51));
+
+        assertSeeks(1L, LocalDateTime.of(2025, 1, 1, 0, 0), 10L);
+    }
+
+    @Test
+    void newerComments_shouldUseRowValueCursor() {
+        commentRepository.findNewer(1L, LocalDateTime.of(2025, 1, 1, 0, 0), 10L, Limit.of(51));
+
+        assertSeeks(1L, LocalDateTime.of(2025, 1, 1, 0, 0), 10L);
+    }
+
+    // PostgreSQL turns a row value comparison into a range bound on (task, timestamp, comments_id);
+    // an OR of timestamp conditions is only a filter over every comment of the task
+    private void assertSeeks(Object... args) {
+        String sql = RecordingInspector.STATEMENTS.get(0);
+        assertTrue(sql.matches("(?s).*\\(\\w+\\.timestamp,\\w+\\.comments_id\\)[<>]\\(\\?,\\?\\).*"),
+                () -> "Expected a row value cursor in:\n" + sql);
+        assertFalse(sql.contains(" or "), () -> "Unexpected OR in:\n" + sql);
+        assertPlanUses("TASK = ?1", args);
+    }
+
+    private void assertPlanUses(String expected, Object... args) {
+        // skip the user lookups made to resolve email filters
+        String sql = RecordingInspector.STATEMENTS.stream()
+                .filter(statement -> !statement.contains("from users"))
+                .findFirst()
+                .orElseThrow();
+        Object[] bindings = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        for (int i = 0; i < bindings.length; i++) {
+            // trailing parameters are the page limit and offset
+            bindings[i] = i < args.length ? args[i] : 11;
+        }
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, bindings));
+        assertTrue(plan.contains(expected), () -> "Expected " + expected + " in plan:\n" + plan);
+        assertFalse(plan.contains("tableScan"), () -> "Unexpected table scan in plan:\n" + plan);
+    }
+}
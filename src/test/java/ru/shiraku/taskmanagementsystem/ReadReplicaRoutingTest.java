@@ -0,0 +1,172 @@
+package ru.shiraku.taskmanagementsystem;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.shiraku.taskmanagementsystem.exceptions.NotFound;
+import ru.shiraku.taskmanagementsystem.exceptions.UserAlreadyExistsException;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Role;
+import ru.shiraku.taskmanagementsystem.model.dto.CreateTaskRequest;
+import ru.shiraku.taskmanagementsystem.model.dto.LoginRequest;
+import ru.shiraku.taskmanagementsystem.model.dto.RegisterRequest;
+import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
+import ru.shiraku.taskmanagementsystem.repository.UserRepository;
+import ru.shiraku.taskmanagementsystem.service.TaskService;
+import ru.shiraku.taskmanagementsystem.service.UserService;
+import ru.shiraku.taskmanagementsystem.utils.PasswordHasher;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Two H2 databases stand in for the primary and the replica. Nothing copies data between
+ * them, so a task written through the service exists only on the primary, and where a
+ * read finds it shows which database served the read.
+ */
+@SpringBootTest(
+        classes = TaskManagementSystemApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+                "spring.datasource.replica.username=sa",
+                "spring.datasource.replica.password=",
+                "spring.datasource.replica.driver-class-name=org.h2.Driver",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false",
+                "spring.docker.compose.enabled=false",
+                "ADMIN_SECRET_KEY=test"
+        })
+public class ReadReplicaRoutingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @MockitoSpyBean
+    private PasswordHasher passwordHasher;
+
+    private AuthenticatedUser admin;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @BeforeEach
+    void setup() {
+        UserEntity user = new UserEntity();
+        user.setName("Admin");
+        user.setLastName("Routing");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("hash");
+        user.setRole(Role.ADMIN);
+        user = userRepository.save(user);
+        admin = new AuthenticatedUser(user.getId(), user.getEmail(), Role.ADMIN, user.getName(), null);
+    }
+
+    @Test
+    void writes_shouldGoToPrimaryAndReadOnlyReadsToReplica() {
+        Long taskId = taskService.createTask(admin,
+                new CreateTaskRequest("Routed", "Description", Priority.HIGH, admin.getEmail())).getTaskId();
+
+        assertEquals(1, countTasks(primaryDataSource, taskId));
+        assertEquals(0, countTasks(replicaDataSource, taskId));
+        assertThrows(NotFound.class, () -> taskService.getTask(taskId, admin));
+        assertTrue(taskService.getAllTasks().stream().noneMatch(task -> task.getTaskId().equals(taskId)));
+    }
+
+    @Test
+    void login_shouldFindUserOnPrimaryAndHashWithoutConnection() {
+        UserEntity user = new UserEntity();
+        user.setName("User");
+        user.setLastName("Routing");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword(passwordHasher.encode("password123"));
+        user.setRole(Role.USER);
+        userRepository.save(user);
+        doAnswer(invocation -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            assertEquals(0, primaryDataSource.getHikariPoolMXBean().getActiveConnections());
+            return invocation.callRealMethod();
+        }).when(passwordHasher).matches(any(), any());
+
+        assertNotNull(userService.loginUser(new LoginRequest(user.getEmail(), "password123")));
+        verify(passwordHasher).matches(any(), any());
+    }
+
+    @Test
+    void register_shouldCheckEmailOnPrimaryAndHashWithoutConnection() {
+        RegisterRequest request = new RegisterRequest("User", "Routing", UUID.randomUUID() + "@example.com",
+                "password123");
+        doAnswer(invocation -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            assertEquals(0, primaryDataSource.getHikariPoolMXBean().getActiveConnections());
+            return invocation.callRealMethod();
+        }).when(passwordHasher).encode(any());
+
+        userService.registerUser(request);
+        verify(passwordHasher).encode(any());
+        // the replica never sees the insert, so this is only found on the primary
+        assertThrows(UserAlreadyExistsException.class, () -> userService.registerUser(request));
+    }
+
+    @Test
+    @DirtiesContext
+    void readOnlyReads_shouldFallBackToPrimaryWhenReplicaIsDown() {
+        Long taskId = taskService.createTask(admin,
+                new CreateTaskRequest("Fallback", "Description", Priority.LOW, admin.getEmail())).getTaskId();
+        double fallbacks = meterRegistry.counter("datasource.replica.fallback").count();
+
+        replicaDataSource.close();
+
+        assertEquals("Fallback", taskService.getTask(taskId, admin).getTaskTitle());
+        assertTrue(meterRegistry.counter("datasource.replica.fallback").count() > fallbacks);
+    }
+
+    private static int countTasks(HikariDataSource dataSource, Long taskId) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "select count(*) from tasks where task_id = ?", Integer.class, taskId);
+    }
+}
@@ -0,0 +1,106 @@
+package ru.shiraku.taskmanagementsystem;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.shiraku.taskmanagementsystem.config.SlowQueryLogConfig;
+import ru.shiraku.taskmanagementsystem.filter.SlowRequestLogFilter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class SlowLogTest {
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void slowQuery_shouldLogRowsParameterShapesAndRoute(CapturedOutput output) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource(Duration.ZERO, 0));
+        jdbcTemplate.execute("create table notes (id bigint primary key, owner varchar(64))");
+        jdbcTemplate.update("insert into notes values (?, ?), (?, ?), (?, ?)", 1, "ann", 2, "ann", 3, "bob");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks/{taskId}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        jdbcTemplate.queryForList("select id from notes where owner = ? and id > ?", Long.class, "ann", 0L);
+
+        assertThat(output).contains("\"rows\":3,", "\"parameters\":[\"Integer\",\"String(3)\",")
+                .containsPattern("\"rows\":2,\"success\":true,\"route\":\"GET /api/tasks/\\{taskId}\","
+                        + "\"sql\":\"select id from notes where owner = \\? and id > \\?\","
+                        + "\"parameters\":\\[\"String\\(3\\)\",\"Long\"],\"sampled\":false");
+    }
+
+    @Test
+    void fastQuery_shouldOnlyBeLoggedWhenSampled(CapturedOutput output) {
+        new JdbcTemplate(dataSource(Duration.ofHours(1), 0)).queryForObject("select 1", Integer.class);
+        assertThat(output).doesNotContain("select 1");
+
+        new JdbcTemplate(dataSource(Duration.ofHours(1), 1)).queryForObject("select 2", Integer.class);
+        assertThat(output).contains("\"sql\":\"select 2\"", "\"sampled\":true");
+    }
+
+    @Test
+    void slowRequest_shouldLogRouteAndStatus(CapturedOutput output) throws Exception {
+        SlowRequestLogFilter filter = new SlowRequestLogFilter(Duration.ZERO, 0);
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/api/tasks/7/update-status");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks/{taskId}/update-status");
+            ((HttpServletResponse) res).setStatus(409);
+        });
+
+        assertThat(output).containsPattern("\"method\":\"PATCH\",\"route\":\"/api/tasks/\\{taskId}/update-status\","
+                + "\"status\":409,\"sampled\":false");
+    }
+
+    @Test
+    void asyncRequest_shouldBeLoggedWhenCompletedUnlessEventStream(CapturedOutput output) throws Exception {
+        SlowRequestLogFilter filter = new SlowRequestLogFilter(Duration.ZERO, 0);
+        MockHttpServletRequest list = asyncRequest("/api/admin/tasks");
+        MockHttpServletRequest events = asyncRequest("/api/tasks/events");
+
+        filter.doFilter(list, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        filter.doFilter(events, new MockHttpServletResponse(), (req, res) -> {
+            res.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+            req.startAsync();
+        });
+        assertThat(output).doesNotContain("/api/admin/tasks");
+
+        list.getAsyncContext().complete();
+        events.getAsyncContext().complete();
+        assertThat(output).contains("\"method\":\"GET\",\"route\":\"/api/admin/tasks\",\"status\":200")
+                .doesNotContain("/api/tasks/events");
+    }
+
+    private static MockHttpServletRequest asyncRequest(String route) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", route);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, route);
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private static DataSource dataSource(Duration threshold, double sampleRate) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slow-log-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        return (DataSource) SlowQueryLogConfig.slowQueryLogDataSource(threshold, sampleRate)
+                .postProcessAfterInitialization(h2, "dataSource");
+    }
+}
@@ -0,0 +1,102 @@
+package ru.shiraku.taskmanagementsystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import ru.shiraku.taskmanagementsystem.event.TaskChangeEvent;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Status;
+import ru.shiraku.taskmanagementsystem.model.TaskFilter;
+import ru.shiraku.taskmanagementsystem.model.TaskSnapshot;
+import ru.shiraku.taskmanagementsystem.repository.TaskRepository;
+import ru.shiraku.taskmanagementsystem.service.TaskBitmapIndex;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TaskBitmapIndexTest {
+    private final UUID admin = UUID.randomUUID();
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    private TaskRepository taskRepository;
+    private TaskBitmapIndex index;
+
+    @BeforeEach
+    void setup() {
+        taskRepository = mock(TaskRepository.class);
+        when(taskRepository.streamSnapshots()).thenReturn(Stream.of(
+                new TaskSnapshot(1L, Status.TODO, Priority.HIGH, admin, alice),
+                new TaskSnapshot(2L, Status.IN_PROCESS, Priority.LOW, admin, alice),
+                new TaskSnapshot(3L, Status.TODO, Priority.LOW, admin, bob),
+                new TaskSnapshot(4L, Status.COMPLETED, Priority.HIGH, alice, bob)
+        ));
+        index = new TaskBitmapIndex(taskRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void match_shouldIntersectAttributesAndUniteValues() {
+        TaskFilter filter = new TaskFilter(Set.of(Status.TODO, Status.IN_PROCESS), null, Set.of(admin), Set.of(alice));
+
+        assertEquals(RoaringBitmap.bitmapOf(1, 2), index.match(filter).orElseThrow());
+    }
+
+    @Test
+    void match_shouldReturnEverythingWithoutConstraintsAndNothingForEmptySet() {
+        assertEquals(4, index.match(new TaskFilter(null, null, null, null)).orElseThrow().getCardinality());
+        assertTrue(index.match(new TaskFilter(Set.of(), null, null, null)).orElseThrow().isEmpty());
+        assertTrue(index.match(new TaskFilter(null, null, Set.of(UUID.randomUUID()), null)).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void onTaskChange_shouldMoveAndDropTasks() {
+        when(taskRepository.findSnapshot(3L))
+                .thenReturn(Optional.of(new TaskSnapshot(3L, Status.COMPLETED, Priority.LOW, admin, alice)));
+        when(taskRepository.findSnapshot(5L))
+                .thenReturn(Optional.of(new TaskSnapshot(5L, Status.TODO, Priority.MEDIUM, admin, bob)));
+        index.onTaskChange(new TaskChangeEvent(
+                new TaskSnapshot(3L, Status.TODO, Priority.LOW, admin, bob),
+                new TaskSnapshot(3L, Status.COMPLETED, Priority.LOW, admin, alice)));
+        index.onTaskChange(new TaskChangeEvent(new TaskSnapshot(1L, Status.TODO, Priority.HIGH, admin, alice), null));
+        index.onTaskChange(new TaskChangeEvent(null, new TaskSnapshot(5L, Status.TODO, Priority.MEDIUM, admin, bob)));
+
+        assertEquals(RoaringBitmap.bitmapOf(5), index.match(new TaskFilter(Set.of(Status.TODO), null, null, null)).orElseThrow());
+        assertEquals(RoaringBitmap.bitmapOf(2, 3),
+                index.match(new TaskFilter(null, null, null, Set.of(alice))).orElseThrow());
+    }
+
+    @Test
+    void onTaskChange_shouldConvergeWhenListenersRunOutOfCommitOrder() {
+        TaskSnapshot todo = new TaskSnapshot(1L, Status.TODO, Priority.HIGH, admin, alice);
+        TaskSnapshot inProcess = new TaskSnapshot(1L, Status.IN_PROCESS, Priority.HIGH, admin, bob);
+        TaskSnapshot completed = new TaskSnapshot(1L, Status.COMPLETED, Priority.HIGH, admin, bob);
+        when(taskRepository.findSnapshot(1L)).thenReturn(Optional.of(completed));
+
+        // both changes are committed, the listener of the second one runs first
+        index.onTaskChange(new TaskChangeEvent(inProcess, completed));
+        index.onTaskChange(new TaskChangeEvent(todo, inProcess));
+
+        assertEquals(RoaringBitmap.bitmapOf(3), index.match(new TaskFilter(Set.of(Status.TODO), null, null, null)).orElseThrow());
+        assertEquals(RoaringBitmap.bitmapOf(2), index.match(new TaskFilter(Set.of(Status.IN_PROCESS), null, null, null)).orElseThrow());
+        assertEquals(RoaringBitmap.bitmapOf(1, 4), index.match(new TaskFilter(Set.of(Status.COMPLETED), null, null, null)).orElseThrow());
+        assertEquals(RoaringBitmap.bitmapOf(2), index.match(new TaskFilter(null, null, null, Set.of(alice))).orElseThrow());
+    }
+
+    @Test
+    void match_shouldFallBackWhenTaskIdDoesNotFit() {
+        when(taskRepository.findSnapshot(1L + Integer.MAX_VALUE)).thenReturn(Optional.of(
+                new TaskSnapshot(1L + Integer.MAX_VALUE, Status.TODO, Priority.LOW, admin, bob)));
+        index.onTaskChange(new TaskChangeEvent(null,
+                new TaskSnapshot(1L + Integer.MAX_VALUE, Status.TODO, Priority.LOW, admin, bob)));
+
+        assertFalse(index.isReady());
+        assertTrue(index.match(new TaskFilter(null, null, null, null)).isEmpty());
+    }
+}
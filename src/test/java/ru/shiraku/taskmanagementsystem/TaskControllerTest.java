@@ -7,6 +7,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -17,16 +20,29 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.shiraku.taskmanagementsystem.controller.TaskController;
+import ru.shiraku.taskmanagementsystem.exceptions.GlobalExceptionHandler;
+import ru.shiraku.taskmanagementsystem.exceptions.NotFound;
+import ru.shiraku.taskmanagementsystem.exceptions.PreconditionFailedException;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
 import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Role;
 import ru.shiraku.taskmanagementsystem.model.Status;
+import ru.shiraku.taskmanagementsystem.model.TaskField;
+import ru.shiraku.taskmanagementsystem.model.TaskSort;
 import ru.shiraku.taskmanagementsystem.model.dto.*;
-import ru.shiraku.taskmanagementsystem.model.entity.TaskEntity;
+import ru.shiraku.taskmanagementsystem.service.TaskEventBroadcaster;
 import ru.shiraku.taskmanagementsystem.service.TaskService;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,10 +57,15 @@ public class TaskControllerTest {
     @Mock
     private TaskService taskService;
 
+    @Mock
+    private TaskEventBroadcaster taskEventBroadcaster;
+
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(taskController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(taskController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
     }
 
     @Test
@@ -54,7 +75,7 @@ public class TaskControllerTest {
         SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
 
         Authentication authentication = new UsernamePasswordAuthenticationToken(
-                "admin@example.com",
+                new AuthenticatedUser(UUID.randomUUID(), "admin@example.com", Role.ADMIN, "Admin", null),
                 null,
                 List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))
         );
@@ -62,10 +83,10 @@ public class TaskControllerTest {
         SecurityContextHolder.setContext(securityContext);
 
 
-        TaskEntity response = new TaskEntity(1L, "Task Title", "Task Description", Priority.HIGH, Status.TODO,
-                "Admin", "admin@example.com", null, null, List.of());
+        TaskResponse response = new TaskResponse(1L, "Task Title", "Task Description", Priority.HIGH, Status.TODO,
+                "Admin", "admin@example.com", "User", "user@example.com", List.of(), 0L);
 
-        when(taskService.createTask(any(String.class), any(CreateTaskRequest.class))).thenReturn(response);
+        when(taskService.createTask(any(AuthenticatedUser.class), any(CreateTaskRequest.class))).thenReturn(response);
 
         mockMvc.perform(post("/api/tasks/create")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -74,7 +95,7 @@ public class TaskControllerTest {
                                     "taskTitle": "Task Title",
                                     "taskDescription": "Task Description",
                                     "priority": "HIGH",
-                                    "taskStatus": "TODO"
+                                    "executorEmail": "user@example.com"
                                 }
                                 """))
                 .andExpect(status().isCreated())
@@ -82,7 +103,7 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.taskTitle").value("Task Title"))
                 .andExpect(jsonPath("$.taskDescription").value("Task Description"));
 
-        verify(taskService, times(1)).createTask(any(String.class), any(CreateTaskRequest.class));
+        verify(taskService, times(1)).createTask(any(AuthenticatedUser.class), any(CreateTaskRequest.class));
     }
 
     @Test
@@ -90,9 +111,9 @@ public class TaskControllerTest {
     void editTask_shouldReturnUpdatedTask() throws Exception {
         EditTaskRequest request = new EditTaskRequest("Updated Title", "Updated Description");
         TaskResponse response = new TaskResponse(1L, "Updated Title", "Updated Description", Priority.HIGH, Status.TODO,
-                "Admin", "admin@example.com", null, null, List.of());
+                "Admin", "admin@example.com", null, null, List.of(), 1L);
 
-        when(taskService.editTask(eq(1L), any(EditTaskRequest.class))).thenReturn(response);
+        when(taskService.editTask(eq(1L), any(EditTaskRequest.class), isNull())).thenReturn(response);
 
         mockMvc.perform(patch("/api/tasks/1/edit")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -107,7 +128,7 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.taskTitle").value("Updated Title"))
                 .andExpect(jsonPath("$.taskDescription").value("Updated Description"));
 
-        verify(taskService, times(1)).editTask(eq(1L), any(EditTaskRequest.class));
+        verify(taskService, times(1)).editTask(eq(1L), any(EditTaskRequest.class), isNull());
     }
 
     @Test
@@ -125,9 +146,9 @@ public class TaskControllerTest {
     void updatePriority_shouldReturnUpdatedTask() throws Exception {
         PriorityRequest request = new PriorityRequest(Priority.HIGH);
         TaskResponse response = new TaskResponse(1L, "Task Title", "Task Description", Priority.HIGH, Status.TODO,
-                "Admin", "admin@example.com", null, null, List.of());
+                "Admin", "admin@example.com", null, null, List.of(), 1L);
 
-        when(taskService.updatePriority(eq(1L), eq(Priority.HIGH))).thenReturn(response);
+        when(taskService.updatePriority(eq(1L), eq(Priority.HIGH), isNull())).thenReturn(response);
 
         mockMvc.perform(patch("/api/tasks/1/update-priority")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -139,7 +160,7 @@ public class TaskControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.priority").value("HIGH"));
 
-        verify(taskService, times(1)).updatePriority(eq(1L), eq(Priority.HIGH));
+        verify(taskService, times(1)).updatePriority(eq(1L), eq(Priority.HIGH), isNull());
     }
 
     @Test
@@ -147,9 +168,9 @@ public class TaskControllerTest {
     void updateStatus_shouldReturnUpdatedTask() throws Exception {
         StatusRequest request = new StatusRequest(Status.IN_PROCESS);
         TaskResponse response = new TaskResponse(1L, "Task Title", "Task Description", Priority.HIGH, Status.IN_PROCESS,
-                "Admin", "admin@example.com", null, null, List.of());
+                "Admin", "admin@example.com", null, null, List.of(), 1L);
 
-        when(taskService.updateStatus(eq(1L), eq(Status.IN_PROCESS))).thenReturn(response);
+        when(taskService.updateStatus(eq(1L), eq(Status.IN_PROCESS), isNull())).thenReturn(response);
 
         mockMvc.perform(patch("/api/tasks/1/update-status")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -161,7 +182,30 @@ public class TaskControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.taskStatus").value("IN_PROCESS"));
 
-        verify(taskService, times(1)).updateStatus(eq(1L), eq(Status.IN_PROCESS));
+        verify(taskService, times(1)).updateStatus(eq(1L), eq(Status.IN_PROCESS), isNull());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void getTasksAfter_shouldReturnPageWithNextCursor() throws Exception {
+        TaskCursorPage response = new TaskCursorPage(List.of(
+                new TaskSummaryResponse(3L, "Task Title", "Task Description", Priority.HIGH, Status.TODO,
+                        "Admin", "admin@example.com", "User", "user@example.com", 0L, null)),
+                "bmV4dA");
+
+        when(taskService.getTasksAfter(isNull(), isNull(), isNull(), isNull(), eq(TaskSort.PRIORITY),
+                eq(Sort.Direction.ASC), eq("Y3Vyc29y"), eq(1))).thenReturn(response);
+
+        mockMvc.perform(get("/api/tasks/cursor")
+                        .param("sort", "PRIORITY")
+                        .param("cursor", "Y3Vyc29y")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].taskId").value(3))
+                .andExpect(jsonPath("$.next").value("bmV4dA"));
+
+        verify(taskService, times(1)).getTasksAfter(isNull(), isNull(), isNull(), isNull(), eq(TaskSort.PRIORITY),
+                eq(Sort.Direction.ASC), eq("Y3Vyc29y"), eq(1));
     }
 
     @Test
@@ -169,7 +213,7 @@ public class TaskControllerTest {
     void addComment_shouldReturnTaskWithComments() throws Exception {
         SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
         Authentication authentication = new UsernamePasswordAuthenticationToken(
-                "user@example.com",
+                new AuthenticatedUser(UUID.randomUUID(), "user@example.com", Role.USER, "User", null),
                 null,
                 List.of(new SimpleGrantedAuthority("ROLE_USER"))
         );
@@ -179,9 +223,9 @@ public class TaskControllerTest {
         AddCommentRequest request = new AddCommentRequest("New comment");
         TaskResponse response = new TaskResponse(1L, "Task Title", "Task Description", Priority.HIGH, Status.TODO,
                 "Admin", "admin@example.com", "User", "user@example.com",
-                List.of(new CommentResponse(1L, "New comment", "user@example.com", LocalDateTime.now())));
+                List.of(new CommentResponse(1L, "New comment", "user@example.com", LocalDateTime.now())), 1L);
 
-        when(taskService.addComment(eq(1L), eq("user@example.com"), eq("New comment"))).thenReturn(response);
+        when(taskService.addComment(eq(1L), argThat(user -> user.getEmail().equals("user@example.com")), eq("New comment"))).thenReturn(response);
 
         mockMvc.perform(post("/api/tasks/1/add-comment")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -194,6 +238,223 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.comments[0].authorEmail").value("user@example.com"))
                 .andExpect(jsonPath("$.comments[0].comment").value("New comment"));
 
-        verify(taskService, times(1)).addComment(eq(1L), eq("user@example.com"), eq("New comment"));
+        verify(taskService, times(1)).addComment(eq(1L), argThat(user -> user.getEmail().equals("user@example.com")), eq("New comment"));
+    }
+
+    @Test
+    void appendComments_shouldReturnOnlyNewComments() throws Exception {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(UUID.randomUUID(), "user@example.com", Role.USER, "User", null),
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        ));
+        SecurityContextHolder.setContext(securityContext);
+
+        LocalDateTime now = LocalDateTime.now();
+        when(taskService.appendComments(eq(1L), any(AuthenticatedUser.class), eq(List.of("First", "Second"))))
+                .thenReturn(List.of(
+                        new CommentResponse(51L, "First", "user@example.com", now),
+                        new CommentResponse(52L, "Second", "user@example.com", now)));
+
+        mockMvc.perform(post("/api/tasks/1/comments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                    "comments": ["First", "Second"]
+                                }
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(51))
+                .andExpect(jsonPath("$[1].comment").value("Second"));
+
+        verify(taskService, times(1)).appendComments(eq(1L), any(AuthenticatedUser.class), eq(List.of("First", "Second")));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void getCommentsByTask_shouldReturnOlderPageForCursor() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        CommentPage page = new CommentPage(
+                List.of(new CommentResponse(9L, "Older comment", "user@example.com", now)),
+                null,
+                "bmV3ZXI");
+        when(taskService.getCommentsByTask(1L, "b2xkZXI", null, 20)).thenReturn(page);
+
+        mockMvc.perform(get("/api/tasks/1/comments")
+                        .param("before", "b2xkZXI")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(9))
+                .andExpect(jsonPath("$.older").doesNotExist())
+                .andExpect(jsonPath("$.newer").value("bmV3ZXI"));
+
+        verify(taskService, times(1)).getCommentsByTask(1L, "b2xkZXI", null, 20);
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void countTasks_shouldCombineRepeatedParameters() throws Exception {
+        when(taskService.countTasks(isNull(), eq(Set.of("user@example.com")), eq(Set.of(Status.TODO, Status.IN_PROCESS)),
+                isNull())).thenReturn(7L);
+
+        mockMvc.perform(get("/api/tasks/count")
+                        .param("executorEmail", "user@example.com")
+                        .param("status", "TODO", "IN_PROCESS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(7));
+
+        verify(taskService, times(1)).countTasks(isNull(), eq(Set.of("user@example.com")),
+                eq(Set.of(Status.TODO, Status.IN_PROCESS)), isNull());
+    }
+
+    @Test
+    void getTask_shouldReturnNotModifiedForCurrentETag() throws Exception {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(UUID.randomUUID(), "user@example.com", Role.USER, "User", null),
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        ));
+        SecurityContextHolder.setContext(securityContext);
+        when(taskService.getTaskVersion(eq(1L), any(AuthenticatedUser.class))).thenReturn(4L);
+
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(content().string(""));
+
+        verify(taskService, never()).getTask(any(), any());
+    }
+
+    @Test
+    void updateStatus_shouldPassIfMatchVersionAndReturnNewETag() throws Exception {
+        TaskResponse response = new TaskResponse(1L, "Task Title", "Task Description", Priority.HIGH, Status.COMPLETED,
+                "Admin", "admin@example.com", "User", "user@example.com", List.of(), 4L);
+        when(taskService.updateStatus(1L, Status.COMPLETED, Set.of(3L))).thenReturn(response);
+
+        mockMvc.perform(patch("/api/tasks/1/update-status")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                    "status": "COMPLETED"
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    void updateStatus_shouldReturnPreconditionFailedForStaleVersion() throws Exception {
+        when(taskService.updateStatus(1L, Status.COMPLETED, Set.of(2L)))
+                .thenThrow(new PreconditionFailedException("Task has been modified, reload it and retry."));
+
+        mockMvc.perform(patch("/api/tasks/1/update-status")
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                    "status": "COMPLETED"
+                                }
+                                """))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateStatus_shouldPassEveryVersionOfIfMatchList() throws Exception {
+        TaskResponse response = new TaskResponse(1L, "Task Title", "Task Description", Priority.HIGH, Status.COMPLETED,
+                "Admin", "admin@example.com", "User", "user@example.com", List.of(), 5L);
+        when(taskService.updateStatus(1L, Status.COMPLETED, Set.of(3L, 4L))).thenReturn(response);
+
+        mockMvc.perform(patch("/api/tasks/1/update-status")
+                        .header("If-Match", "\"3\", W/\"7\", \"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                    "status": "COMPLETED"
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""));
+    }
+
+    @Test
+    void updateStatus_shouldTreatIfMatchStarAsExistingTask() throws Exception {
+        TaskResponse response = new TaskResponse(1L, "Task Title", "Task Description", Priority.HIGH, Status.COMPLETED,
+                "Admin", "admin@example.com", "User", "user@example.com", List.of(), 4L);
+        when(taskService.updateStatus(eq(1L), eq(Status.COMPLETED), isNull())).thenReturn(response);
+        when(taskService.updateStatus(eq(2L), eq(Status.COMPLETED), isNull())).thenThrow(new NotFound("Task with ID 2 not found"));
+
+        mockMvc.perform(patch("/api/tasks/1/update-status")
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                    "status": "COMPLETED"
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+        mockMvc.perform(patch("/api/tasks/2/update-status")
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                    "status": "COMPLETED"
+                                }
+                                """))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getTasks_shouldPassRequestedFieldsAndReturnOnlyThem() throws Exception {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("taskId", 1L);
+        row.put("taskTitle", "Task Title");
+        when(taskService.getTasks(null, null, null, null, TaskSort.ID, Sort.Direction.ASC, 0, 10,
+                EnumSet.of(TaskField.TASK_ID, TaskField.TASK_TITLE)))
+                .thenReturn(new PageImpl<>(List.of(row), PageRequest.of(0, 10), 1));
+
+        mockMvc.perform(get("/api/tasks").param("fields", "taskTitle"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].taskId").value(1))
+                .andExpect(jsonPath("$.content[0].taskTitle").value("Task Title"))
+                .andExpect(jsonPath("$.content[0].taskDescription").doesNotExist());
+    }
+
+    @Test
+    void getTasks_shouldRejectUnknownField() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("fields", "taskTitle,password"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void getTask_shouldReturnRequestedFieldsWithETag() throws Exception {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(UUID.randomUUID(), "user@example.com", Role.USER, "User", null),
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        ));
+        SecurityContextHolder.setContext(securityContext);
+        Map<String, Object> task = new LinkedHashMap<>();
+        task.put("taskId", 1L);
+        task.put("taskStatus", Status.TODO);
+        task.put("version", 5L);
+        when(taskService.getTaskFields(eq(1L), eq(EnumSet.of(TaskField.TASK_ID, TaskField.TASK_STATUS)),
+                any(AuthenticatedUser.class))).thenReturn(task);
+
+        mockMvc.perform(get("/api/tasks/1").param("fields", "taskStatus"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(jsonPath("$.taskStatus").value("TODO"))
+                .andExpect(jsonPath("$.version").doesNotExist());
+
+        verify(taskService, never()).getTask(any(), any());
     }
 }
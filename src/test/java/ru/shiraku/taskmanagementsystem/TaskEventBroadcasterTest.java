@@ -0,0 +1,251 @@
+package ru.shiraku.taskmanagementsystem;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.shiraku.taskmanagementsystem.controller.TaskController;
+import ru.shiraku.taskmanagementsystem.event.CommentAddedEvent;
+import ru.shiraku.taskmanagementsystem.event.TaskChangeEvent;
+import ru.shiraku.taskmanagementsystem.exceptions.EventStreamClosedException;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Role;
+import ru.shiraku.taskmanagementsystem.model.Status;
+import ru.shiraku.taskmanagementsystem.model.TaskSnapshot;
+import ru.shiraku.taskmanagementsystem.model.dto.CommentResponse;
+import ru.shiraku.taskmanagementsystem.service.TaskEventBroadcaster;
+import ru.shiraku.taskmanagementsystem.service.TaskService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class TaskEventBroadcasterTest {
+    private static final String STALLABLE = "X-Test-Stallable";
+    private final AuthenticatedUser alice = user("alice@example.com", Role.USER);
+    private final AuthenticatedUser bob = user("bob@example.com", Role.USER);
+    private final AuthenticatedUser admin = user("admin@example.com", Role.ADMIN);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // holds writes to streams opened with the STALLABLE header, as if the client stopped reading
+    private final CountDownLatch released = new CountDownLatch(1);
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private volatile boolean stalled;
+
+    private TaskEventBroadcaster broadcaster;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        start(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        released.countDown();
+        broadcaster.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void streamEvents_shouldDeliverChangesToExecutorAndAdmins() throws Exception {
+        MockHttpServletResponse aliceStream = open(alice);
+        MockHttpServletResponse bobStream = open(bob);
+        MockHttpServletResponse adminStream = open(admin);
+
+        broadcaster.onTaskChange(new TaskChangeEvent(
+                new TaskSnapshot(1L, Status.TODO, Priority.HIGH, admin.getId(), alice.getId()),
+                new TaskSnapshot(1L, Status.IN_PROCESS, Priority.HIGH, admin.getId(), alice.getId())));
+        broadcaster.onCommentAdded(new CommentAddedEvent(1L, alice.getId(),
+                List.of(new CommentResponse(7L, "Done soon", "alice@example.com", LocalDateTime.now()))));
+
+        awaitContent(aliceStream, "\"type\":\"COMMENT_ADDED\"");
+        awaitContent(adminStream, "\"type\":\"COMMENT_ADDED\"");
+        assertTrue(aliceStream.getContentAsString().contains("\"type\":\"STATUS_CHANGED\""));
+        assertTrue(adminStream.getContentAsString().contains("event:task"));
+        assertFalse(bobStream.getContentAsString().contains("STATUS_CHANGED"));
+        assertEquals(3, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void streamEvents_shouldNotifyPreviousExecutorOfReassignment() throws Exception {
+        MockHttpServletResponse aliceStream = open(alice);
+        MockHttpServletResponse bobStream = open(bob);
+
+        broadcaster.onTaskChange(new TaskChangeEvent(
+                new TaskSnapshot(2L, Status.TODO, Priority.LOW, admin.getId(), alice.getId()),
+                new TaskSnapshot(2L, Status.TODO, Priority.LOW, admin.getId(), bob.getId())));
+
+        awaitContent(aliceStream, "\"type\":\"EXECUTOR_CHANGED\"");
+        awaitContent(bobStream, "\"type\":\"EXECUTOR_CHANGED\"");
+    }
+
+    @Test
+    void streamEvents_shouldNotHoldEventsBehindStalledClientAndShouldDropIt() throws Exception {
+        open(bob, true);
+        MockHttpServletResponse aliceStream = open(alice);
+        stalled = true;
+
+        for (long taskId = 1; taskId <= 3; taskId++) {
+            broadcaster.onTaskChange(new TaskChangeEvent(
+                    new TaskSnapshot(taskId, Status.TODO, Priority.LOW, admin.getId(), bob.getId()),
+                    new TaskSnapshot(taskId, Status.TODO, Priority.LOW, admin.getId(), alice.getId())));
+            awaitContent(aliceStream, "\"taskId\":" + taskId);
+        }
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (broadcaster.getSubscriberCount() > 1) {
+            assertTrue(System.nanoTime() < deadline, "Expected the stalled stream to be dropped");
+            Thread.sleep(50);
+            broadcaster.heartbeat();
+        }
+        assertEquals(1, meterRegistry.get("task.events.dropped").counter().count());
+        awaitContent(aliceStream, ":heartbeat");
+    }
+
+    @Test
+    void streamEvents_shouldFailStreamsWhenEverySenderIsBusy() throws Exception {
+        broadcaster.shutdown();
+        start(1);
+        MvcResult bobStream = openStream(bob, true);
+        MvcResult aliceStream = openStream(alice, false);
+        stalled = true;
+
+        // bob's write blocks the only sender
+        broadcaster.onTaskChange(new TaskChangeEvent(
+                new TaskSnapshot(1L, Status.TODO, Priority.LOW, admin.getId(), bob.getId()),
+                new TaskSnapshot(1L, Status.IN_PROCESS, Priority.LOW, admin.getId(), bob.getId())));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        broadcaster.onTaskChange(new TaskChangeEvent(
+                new TaskSnapshot(2L, Status.TODO, Priority.LOW, admin.getId(), alice.getId()),
+                new TaskSnapshot(2L, Status.IN_PROCESS, Priority.LOW, admin.getId(), alice.getId())));
+        assertInstanceOf(EventStreamClosedException.class, aliceStream.getAsyncResult(5000));
+        assertEquals(1, broadcaster.getSubscriberCount());
+
+        Thread.sleep(250);
+        broadcaster.heartbeat();
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertEquals(2, meterRegistry.get("task.events.dropped").counter().count());
+
+        // the stuck write returns and its sender ends the stream
+        released.countDown();
+        assertInstanceOf(EventStreamClosedException.class, bobStream.getAsyncResult(5000));
+    }
+
+    private void start(int maxThreads) {
+        broadcaster = new TaskEventBroadcaster(meterRegistry, 1, maxThreads, 16, Duration.ofMinutes(1),
+                Duration.ofMillis(200));
+        mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(mock(TaskService.class), broadcaster))
+                .addFilter((request, response, chain) -> chain.doFilter(request,
+                        ((HttpServletRequest) request).getHeader(STALLABLE) != null
+                                ? new StallableResponse((HttpServletResponse) response) : response))
+                .build();
+    }
+
+    private MockHttpServletResponse open(AuthenticatedUser user) throws Exception {
+        return open(user, false);
+    }
+
+    private MockHttpServletResponse open(AuthenticatedUser user, boolean stallable) throws Exception {
+        return openStream(user, stallable).getResponse();
+    }
+
+    private MvcResult openStream(AuthenticatedUser user, boolean stallable) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+        MockHttpServletRequestBuilder request = get("/api/tasks/events");
+        if (stallable) {
+            request.header(STALLABLE, "true");
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        awaitContent(result.getResponse(), ":connected");
+        return result;
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!response.getContentAsString().contains(expected)) {
+            assertTrue(System.nanoTime() < deadline, () -> "Expected " + expected + " in stream");
+            Thread.sleep(10);
+        }
+    }
+
+    private static AuthenticatedUser user(String email, Role role) {
+        return new AuthenticatedUser(UUID.randomUUID(), email, role, "Name", null);
+    }
+
+    private class StallableResponse extends HttpServletResponseWrapper {
+        private final ServletOutputStream stream;
+
+        StallableResponse(HttpServletResponse response) throws IOException {
+            super(response);
+            ServletOutputStream delegate = response.getOutputStream();
+            this.stream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    awaitRelease();
+                    delegate.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    awaitRelease();
+                    delegate.write(b, off, len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return !stalled;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return stream;
+        }
+
+        private void awaitRelease() throws IOException {
+            try {
+                if (stalled) {
+                    blocked.countDown();
+                    released.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+}
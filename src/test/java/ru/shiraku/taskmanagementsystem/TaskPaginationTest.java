@@ -0,0 +1,139 @@
+package ru.shiraku.taskmanagementsystem;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.shiraku.taskmanagementsystem.model.AuthenticatedUser;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Role;
+import ru.shiraku.taskmanagementsystem.model.dto.CreateTaskRequest;
+import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
+import ru.shiraku.taskmanagementsystem.repository.UserRepository;
+import ru.shiraku.taskmanagementsystem.service.TaskService;
+import ru.shiraku.taskmanagementsystem.utils.JWTUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pages through tasks whose sort keys tie, on H2 through the full stack, and checks the
+ * bounds on page sizes.
+ */
+@SpringBootTest(
+        classes = TaskManagementSystemApplication.class,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:pagination;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false",
+                "spring.docker.compose.enabled=false",
+                "ADMIN_SECRET_KEY=test"
+        })
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TaskPaginationTest {
+    private static final String ADMIN = "pagination.admin@example.com";
+    // three priorities over eleven tasks: every page boundary falls inside a tie
+    private static final int TASKS = 11;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JWTUtils jwtUtils;
+
+    private String bearer;
+    private final List<Created> created = new ArrayList<>();
+
+    private record Created(long id, int rank) {
+    }
+
+    @BeforeAll
+    void seed() {
+        UserEntity admin = new UserEntity();
+        admin.setName("Pagination");
+        admin.setLastName("Admin");
+        admin.setEmail(ADMIN);
+        admin.setPassword("hash");
+        admin.setRole(Role.ADMIN);
+        admin = userRepository.save(admin);
+        AuthenticatedUser author = new AuthenticatedUser(admin.getId(), ADMIN, Role.ADMIN, "Pagination", null);
+        for (int i = 0; i < TASKS; i++) {
+            Priority priority = Priority.values()[i % Priority.values().length];
+            long id = taskService.createTask(author, new CreateTaskRequest("Task " + i, "Description", priority, ADMIN))
+                    .getTaskId();
+            created.add(new Created(id, priority.ordinal()));
+        }
+        bearer = "Bearer " + jwtUtils.generateToken(admin.getId(), ADMIN, Role.ADMIN, "Pagination");
+    }
+
+    @Test
+    void cursor_shouldPageThroughTiesInBothDirections() throws Exception {
+        Comparator<Created> byRankAndId = Comparator.comparingInt(Created::rank).thenComparingLong(Created::id);
+
+        assertEquals(ids(created.stream().sorted(byRankAndId).toList()), pageThrough("PRIORITY", "ASC", 2));
+        assertEquals(ids(created.stream().sorted(byRankAndId.reversed()).toList()), pageThrough("PRIORITY", "DESC", 3));
+    }
+
+    @Test
+    void pageSize_shouldBeBounded() throws Exception {
+        for (String size : List.of("0", "-1", "1001")) {
+            mockMvc.perform(get("/api/tasks/cursor").param("size", size).header("Authorization", bearer))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/tasks/slice").param("size", size).header("Authorization", bearer))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/tasks").param("size", size).header("Authorization", bearer))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/tasks/{taskId}/comments", created.get(0).id()).param("size", size)
+                            .header("Authorization", bearer))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/api/tasks").param("page", "-1").header("Authorization", bearer))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> pageThrough(String sort, String direction, int size) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/tasks/cursor")
+                    .param("authorEmail", ADMIN)
+                    .param("sort", sort)
+                    .param("direction", direction)
+                    .param("size", String.valueOf(size))
+                    .header("Authorization", bearer);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request).andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<Number> page = JsonPath.read(body, "$.content[*].taskId");
+            page.forEach(id -> ids.add(id.longValue()));
+            cursor = JsonPath.read(body, "$.next");
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static List<Long> ids(List<Created> tasks) {
+        return tasks.stream().map(Created::id).toList();
+    }
+}
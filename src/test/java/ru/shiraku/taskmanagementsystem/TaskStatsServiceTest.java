@@ -0,0 +1,101 @@
+package ru.shiraku.taskmanagementsystem;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.shiraku.taskmanagementsystem.event.TaskChangeEvent;
+import ru.shiraku.taskmanagementsystem.exceptions.TaskStatsNotLoadedException;
+import ru.shiraku.taskmanagementsystem.model.Priority;
+import ru.shiraku.taskmanagementsystem.model.Status;
+import ru.shiraku.taskmanagementsystem.model.TaskCountRow;
+import ru.shiraku.taskmanagementsystem.model.TaskSnapshot;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskStatsResponse;
+import ru.shiraku.taskmanagementsystem.repository.TaskRepository;
+import ru.shiraku.taskmanagementsystem.repository.UserRepository;
+import ru.shiraku.taskmanagementsystem.service.TaskStatsService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TaskStatsServiceTest {
+    private final UUID admin = UUID.randomUUID();
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    private TaskRepository taskRepository;
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private TaskStatsService taskStatsService;
+
+    @BeforeEach
+    void setup() {
+        taskRepository = mock(TaskRepository.class);
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findById(bob)).thenReturn(Optional.empty());
+        when(taskRepository.countByStatusPriorityAndExecutor()).thenReturn(List.of(
+                new TaskCountRow(Status.TODO, Priority.HIGH, alice, "alice@example.com", 2),
+                new TaskCountRow(Status.COMPLETED, Priority.LOW, alice, "alice@example.com", 1)));
+        meterRegistry = new SimpleMeterRegistry();
+        taskStatsService = new TaskStatsService(taskRepository, userRepository, meterRegistry);
+        taskStatsService.load();
+    }
+
+    @Test
+    void onTaskChange_shouldMoveCounters() {
+        taskStatsService.onTaskChange(new TaskChangeEvent(
+                new TaskSnapshot(1L, Status.TODO, Priority.HIGH, admin, alice),
+                new TaskSnapshot(1L, Status.IN_PROCESS, Priority.HIGH, admin, bob)));
+        taskStatsService.onTaskChange(new TaskChangeEvent(
+                new TaskSnapshot(3L, Status.COMPLETED, Priority.LOW, admin, alice), null));
+
+        TaskStatsResponse stats = taskStatsService.getStats();
+        assertEquals(2, stats.getTotal());
+        assertEquals(Map.of(Status.TODO, 1L, Status.IN_PROCESS, 1L, Status.COMPLETED, 0L), stats.getByStatus());
+        assertEquals(Map.of(Priority.HIGH, 2L, Priority.MEDIUM, 0L, Priority.LOW, 0L), stats.getByPriority());
+        assertEquals(Map.of("alice@example.com", 1L, bob.toString(), 1L), stats.getByExecutor());
+    }
+
+    @Test
+    void reconcile_shouldCorrectDriftFromDatabase() {
+        taskStatsService.onTaskChange(new TaskChangeEvent(null,
+                new TaskSnapshot(4L, Status.TODO, Priority.MEDIUM, admin, alice)));
+        // the task above was rolled back by hand, the database still has three tasks
+        taskStatsService.reconcile();
+
+        TaskStatsResponse stats = taskStatsService.getStats();
+        assertEquals(3, stats.getTotal());
+        assertEquals(0L, stats.getByPriority().get(Priority.MEDIUM));
+        assertEquals(Map.of("alice@example.com", 3L), stats.getByExecutor());
+        assertEquals(1.0, meterRegistry.counter("task.stats.drift").count());
+    }
+
+    @Test
+    void load_shouldSeedUnderSteadyWritesAndReplayLaterChanges() {
+        TaskStatsService loading = new TaskStatsService(taskRepository, userRepository, new SimpleMeterRegistry());
+        assertThrows(TaskStatsNotLoadedException.class, loading::getStats);
+
+        // committed before the query started, so already in its result
+        loading.onTaskChange(new TaskChangeEvent(null, new TaskSnapshot(1L, Status.TODO, Priority.HIGH, admin, alice)));
+        when(taskRepository.countByStatusPriorityAndExecutor()).thenAnswer(invocation -> {
+            // committed while the query ran, and not in its result
+            loading.onTaskChange(new TaskChangeEvent(null,
+                    new TaskSnapshot(5L, Status.IN_PROCESS, Priority.MEDIUM, admin, alice)));
+            return List.of(
+                    new TaskCountRow(Status.TODO, Priority.HIGH, alice, "alice@example.com", 2),
+                    new TaskCountRow(Status.COMPLETED, Priority.LOW, alice, "alice@example.com", 1));
+        });
+        loading.load();
+
+        TaskStatsResponse stats = loading.getStats();
+        assertEquals(4, stats.getTotal());
+        assertEquals(Map.of(Status.TODO, 2L, Status.IN_PROCESS, 1L, Status.COMPLETED, 1L), stats.getByStatus());
+        assertEquals(Map.of("alice@example.com", 4L), stats.getByExecutor());
+    }
+}
@@ -16,12 +16,14 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.shiraku.taskmanagementsystem.controller.UserController;
+import ru.shiraku.taskmanagementsystem.exceptions.GlobalExceptionHandler;
+import ru.shiraku.taskmanagementsystem.exceptions.PasswordHashingOverloadedException;
 import ru.shiraku.taskmanagementsystem.model.Priority;
 import ru.shiraku.taskmanagementsystem.model.Role;
 import ru.shiraku.taskmanagementsystem.model.Status;
 import ru.shiraku.taskmanagementsystem.model.dto.LoginRequest;
 import ru.shiraku.taskmanagementsystem.model.dto.RegisterRequest;
-import ru.shiraku.taskmanagementsystem.model.dto.TaskResponse;
+import ru.shiraku.taskmanagementsystem.model.dto.TaskSummaryResponse;
 import ru.shiraku.taskmanagementsystem.model.dto.UserResponse;
 import ru.shiraku.taskmanagementsystem.service.TaskService;
 import ru.shiraku.taskmanagementsystem.service.UserService;
@@ -108,12 +110,33 @@ class UserControllerTest {
         verify(userService, times(1)).loginUser(Mockito.any(LoginRequest.class));
     }
 
+    @Test
+    void login_shouldReturnServiceUnavailable_whenHashingPoolIsFull() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        when(userService.loginUser(Mockito.any(LoginRequest.class)))
+                .thenThrow(new PasswordHashingOverloadedException("Server is busy, please retry later.", 1));
+
+        mockMvc.perform(post("/api/user/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                    "email": "john.doe@example.com",
+                                    "password": "password"
+                                }
+                                """))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     @Test
     void getTasks_shouldReturnUserTasks_withToken() throws Exception {
         String token = jwtUtils.generateToken(
                 UUID.randomUUID(),
                 "john.doe@example.com",
-                Role.USER
+                Role.USER,
+                "John"
         );
         SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
         Authentication authentication = new UsernamePasswordAuthenticationToken(
@@ -124,11 +147,11 @@ class UserControllerTest {
         securityContext.setAuthentication(authentication);
         SecurityContextHolder.setContext(securityContext);
 
-        List<TaskResponse> mockTasks = List.of(
-                new TaskResponse(1L, "Task 1", "Описание задачи 1", Priority.HIGH, Status.TODO,
-                        "Автор 1", "author1@example.com", "Исполнитель 1", "john.doe@example.com", List.of()),
-                new TaskResponse(2L, "Task 2", "Описание задачи 2", Priority.MEDIUM, Status.IN_PROCESS,
-                        "Автор 2", "author2@example.com", "Исполнитель 2", "john.doe@example.com", List.of())
+        List<TaskSummaryResponse> mockTasks = List.of(
+                new TaskSummaryResponse(1L, "Task 1", "Описание задачи 1", Priority.HIGH, Status.TODO,
+                        "Автор 1", "author1@example.com", "Исполнитель 1", "john.doe@example.com", 0L, null),
+                new TaskSummaryResponse(2L, "Task 2", "Описание задачи 2", Priority.MEDIUM, Status.IN_PROCESS,
+                        "Автор 2", "author2@example.com", "Исполнитель 2", "john.doe@example.com", 0L, null)
         );
 
         when(taskService.getTasksByExecutor("john.doe@example.com")).thenReturn(mockTasks);
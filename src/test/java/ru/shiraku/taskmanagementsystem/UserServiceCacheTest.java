@@ -0,0 +1,112 @@
+package ru.shiraku.taskmanagementsystem;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.shiraku.taskmanagementsystem.config.CacheConfig;
+import ru.shiraku.taskmanagementsystem.model.Role;
+import ru.shiraku.taskmanagementsystem.model.dto.RegisterAdminRequest;
+import ru.shiraku.taskmanagementsystem.model.entity.UserEntity;
+import ru.shiraku.taskmanagementsystem.repository.UserRepository;
+import ru.shiraku.taskmanagementsystem.service.UserService;
+import ru.shiraku.taskmanagementsystem.utils.JWTUtils;
+import ru.shiraku.taskmanagementsystem.utils.PasswordHasher;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig({CacheConfig.class, UserServiceCacheTest.Config.class})
+public class UserServiceCacheTest {
+
+    @Configuration
+    static class Config {
+        @Bean
+        UserRepository userRepository() {
+            return mock(UserRepository.class);
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.USERS);
+            cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100));
+            return cacheManager;
+        }
+
+        @Bean
+        UserService userService(UserRepository userRepository) {
+            return new UserService(new JWTUtils(), userRepository, mock(PasswordHasher.class),
+                    TransactionOperations.withoutTransaction());
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setup() {
+        reset(userRepository);
+        cacheManager.getCache(CacheConfig.USERS).clear();
+        user = new UserEntity();
+        user.setName("John");
+        user.setLastName("Doe");
+        user.setEmail("john.doe@example.com");
+        user.setRole(Role.USER);
+        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void findByEmail_shouldHitRepositoryOnce() {
+        userService.findByEmail("john.doe@example.com");
+        userService.findByEmail("john.doe@example.com");
+
+        verify(userRepository, times(1)).findByEmail("john.doe@example.com");
+    }
+
+    @Test
+    void registerAdmin_shouldEvictCachedUser() {
+        userService.findByEmail("john.doe@example.com");
+
+        userService.registerAdmin(new RegisterAdminRequest("john.doe@example.com"));
+        UserEntity reloaded = userService.findByEmail("john.doe@example.com");
+
+        assertEquals(Role.ADMIN, reloaded.getRole());
+        verify(userRepository, times(3)).findByEmail("john.doe@example.com");
+    }
+
+    @Test
+    void registerAdmin_shouldEvictOnlyAfterCommit() {
+        userService.findByEmail("john.doe@example.com");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.registerAdmin(new RegisterAdminRequest("john.doe@example.com"));
+            assertNotNull(cacheManager.getCache(CacheConfig.USERS).get("john.doe@example.com"));
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(cacheManager.getCache(CacheConfig.USERS).get("john.doe@example.com"));
+    }
+}